@@ -0,0 +1,13 @@
+package com.densoft.springboottesting.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class ReactiveEmployeeApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveEmployeeApplication.class, args);
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.densoft.springboottesting.reactive.controller;
+
+import com.densoft.springboottesting.reactive.dto.EmployeePage;
+import com.densoft.springboottesting.reactive.model.Employee;
+import com.densoft.springboottesting.reactive.service.EmployeeService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/employees")
+public class EmployeeController {
+
+    private final EmployeeService employeeService;
+
+    public EmployeeController(EmployeeService employeeService) {
+        this.employeeService = employeeService;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Employee> createEmployee(@RequestBody Employee employee) {
+        return employeeService.saveEmployee(employee);
+    }
+
+    @GetMapping
+    public Mono<EmployeePage> getAllEmployees(@RequestParam(value = "after", defaultValue = "0") long after,
+                                              @RequestParam(value = "limit", defaultValue = "" + EmployeeService.DEFAULT_PAGE_SIZE) int limit) {
+        return employeeService.getEmployeePage(after, limit);
+    }
+
+    // streamed with backpressure: a slow client slows the database cursor instead of buffering the table
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Employee> exportEmployees() {
+        return employeeService.getAllEmployees();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Employee>> getEmployeeById(@PathVariable("id") long id) {
+        return employeeService.getEmployeeById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Employee>> updateEmployee(@PathVariable("id") long id, @RequestBody Employee employee) {
+        return employeeService.getEmployeeById(id)
+                .flatMap(savedEmployee -> employeeService.updateEmployee(Employee.builder()
+                        .id(savedEmployee.getId())
+                        .firstName(employee.getFirstName())
+                        .lastName(employee.getLastName())
+                        .email(employee.getEmail())
+                        .version(savedEmployee.getVersion())
+                        .build()))
+                .map(updatedEmployee -> new ResponseEntity<>(updatedEmployee, HttpStatus.OK))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<String>> deleteEmployee(@PathVariable("id") long id) {
+        return employeeService.deleteEmployee(id)
+                .thenReturn(new ResponseEntity<>("Deleted successfully", HttpStatus.OK));
+    }
+}
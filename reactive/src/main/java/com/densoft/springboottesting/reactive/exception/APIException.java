@@ -0,0 +1,12 @@
+package com.densoft.springboottesting.reactive.exception;
+
+public class APIException extends RuntimeException {
+
+    public APIException(String message) {
+        super(message);
+    }
+
+    public APIException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
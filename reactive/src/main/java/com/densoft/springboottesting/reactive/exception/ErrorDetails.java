@@ -0,0 +1,6 @@
+package com.densoft.springboottesting.reactive.exception;
+
+import java.time.Instant;
+
+public record ErrorDetails(Instant timestamp, String message, String path) {
+}
@@ -0,0 +1,28 @@
+package com.densoft.springboottesting.reactive.exception;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.time.Instant;
+
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    @ExceptionHandler(APIException.class)
+    public ResponseEntity<ErrorDetails> handleAPIException(APIException exception, ServerHttpRequest request) {
+        return error(HttpStatus.BAD_REQUEST, exception.getMessage(), request);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorDetails> handleOptimisticLockingFailure(OptimisticLockingFailureException exception, ServerHttpRequest request) {
+        return error(HttpStatus.CONFLICT, "Employee was modified concurrently, reload it and retry", request);
+    }
+
+    private static ResponseEntity<ErrorDetails> error(HttpStatus status, String message, ServerHttpRequest request) {
+        return new ResponseEntity<>(new ErrorDetails(Instant.now(), message, request.getPath().value()), status);
+    }
+}
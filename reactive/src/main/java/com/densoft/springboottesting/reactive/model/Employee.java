@@ -0,0 +1,26 @@
+package com.densoft.springboottesting.reactive.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+
+@Table("employees")
+public class Employee {
+    @Id
+    private Long id;
+    @Column("first_name")
+    private String firstName;
+    @Column("last_name")
+    private String lastName;
+    private String email;
+    @Version
+    private Long version;
+}
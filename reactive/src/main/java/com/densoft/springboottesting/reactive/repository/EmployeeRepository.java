@@ -0,0 +1,15 @@
+package com.densoft.springboottesting.reactive.repository;
+
+import com.densoft.springboottesting.reactive.model.Employee;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+
+public interface EmployeeRepository extends ReactiveCrudRepository<Employee, Long> {
+
+    @Query("SELECT * FROM employees WHERE id > :after ORDER BY id LIMIT :limit")
+    Flux<Employee> findPage(@Param("after") long after, @Param("limit") int limit);
+
+    Flux<Employee> findAllByOrderByIdAsc();
+}
@@ -0,0 +1,24 @@
+package com.densoft.springboottesting.reactive.service;
+
+import com.densoft.springboottesting.reactive.dto.EmployeePage;
+import com.densoft.springboottesting.reactive.model.Employee;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface EmployeeService {
+
+    int DEFAULT_PAGE_SIZE = 50;
+    int MAX_PAGE_SIZE = 500;
+
+    Mono<Employee> saveEmployee(Employee employee);
+
+    Flux<Employee> getAllEmployees();
+
+    Mono<EmployeePage> getEmployeePage(long after, int limit);
+
+    Mono<Employee> getEmployeeById(long id);
+
+    Mono<Employee> updateEmployee(Employee updatedEmployee);
+
+    Mono<Void> deleteEmployee(long id);
+}
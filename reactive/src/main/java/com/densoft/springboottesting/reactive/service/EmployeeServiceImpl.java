@@ -0,0 +1,74 @@
+package com.densoft.springboottesting.reactive.service;
+
+import com.densoft.springboottesting.reactive.dto.EmployeePage;
+import com.densoft.springboottesting.reactive.exception.APIException;
+import com.densoft.springboottesting.reactive.model.Employee;
+import com.densoft.springboottesting.reactive.repository.EmployeeRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Service
+public class EmployeeServiceImpl implements EmployeeService {
+
+    private final EmployeeRepository employeeRepository;
+
+    public EmployeeServiceImpl(EmployeeRepository employeeRepository) {
+        this.employeeRepository = employeeRepository;
+    }
+
+    @Override
+    public Mono<Employee> saveEmployee(Employee employee) {
+        // a single INSERT; the unique index on email rejects duplicates, as in the servlet stack
+        // a client-supplied id or version is dropped, otherwise save would insert that id or attempt an update
+        employee.setId(null);
+        employee.setVersion(null);
+        return employeeRepository.save(employee)
+                .onErrorMap(DataIntegrityViolationException.class, e -> translate(employee.getEmail(), e));
+    }
+
+    @Override
+    public Flux<Employee> getAllEmployees() {
+        // rows are requested from the driver as the subscriber demands them
+        return employeeRepository.findAllByOrderByIdAsc();
+    }
+
+    @Override
+    public Mono<EmployeePage> getEmployeePage(long after, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        return employeeRepository.findPage(after, pageSize + 1)
+                .collectList()
+                .map(employees -> {
+                    if (employees.size() <= pageSize)
+                        return new EmployeePage(employees, null);
+                    List<Employee> content = employees.subList(0, pageSize);
+                    return new EmployeePage(List.copyOf(content), content.get(pageSize - 1).getId());
+                });
+    }
+
+    @Override
+    public Mono<Employee> getEmployeeById(long id) {
+        return employeeRepository.findById(id);
+    }
+
+    @Override
+    public Mono<Employee> updateEmployee(Employee updatedEmployee) {
+        return employeeRepository.save(updatedEmployee)
+                .onErrorMap(DataIntegrityViolationException.class, e -> translate(updatedEmployee.getEmail(), e));
+    }
+
+    @Override
+    public Mono<Void> deleteEmployee(long id) {
+        return employeeRepository.deleteById(id);
+    }
+
+    private static APIException translate(String email, DataIntegrityViolationException e) {
+        String cause = String.valueOf(e.getMostSpecificCause().getMessage());
+        if (cause.toLowerCase().contains("uk_employees_email"))
+            return new APIException("Employee already exists with given email: " + email, e);
+        return new APIException("Employee could not be saved: constraint violation", e);
+    }
+}
@@ -0,0 +1,186 @@
+package com.densoft.springboottesting.reactive.controller;
+
+import com.densoft.springboottesting.fixtures.EmployeeFixture;
+import com.densoft.springboottesting.reactive.dto.EmployeePage;
+import com.densoft.springboottesting.reactive.model.Employee;
+import com.densoft.springboottesting.reactive.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static com.densoft.springboottesting.fixtures.EmployeeFixture.*;
+import static org.mockito.BDDMockito.*;
+
+@WebFluxTest
+class EmployeeControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private EmployeeService employeeService;
+    private Employee employee;
+
+    @BeforeEach
+    void setUp() {
+        employee = employee(DENNIS);
+    }
+
+    // junit test for create employee
+    @DisplayName("junit test for  create employee")
+    @Test
+    void givenEmployeeObject_whenCreateEmployee_thenReturnSavedEmployee() {
+        //given  - precondition or setup
+        given(employeeService.saveEmployee(any(Employee.class)))
+                .willAnswer(invocationOnMock -> Mono.just(invocationOnMock.getArgument(0)));
+
+        //when - action or the behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.post().uri("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employee)
+                .exchange();
+
+        //then - verify the output
+        response.expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.firstName").isEqualTo(employee.getFirstName())
+                .jsonPath("$.lastName").isEqualTo(employee.getLastName())
+                .jsonPath("$.email").isEqualTo(employee.getEmail());
+    }
+
+    // junit test for get all employees
+    @DisplayName("junit test for get all employees ")
+    @Test
+    void givenEmployeesList_whenGetAllEmployees_thenReturnEmployees() {
+        //given  - precondition or setup
+        Employee employeeTwo = employee(JANE);
+
+        List<Employee> employees = List.of(employee, employeeTwo);
+
+        given(employeeService.getEmployeePage(0L, 50)).willReturn(Mono.just(new EmployeePage(employees, null)));
+
+        //when - action or the behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees").exchange();
+        //then - verify the output
+        response.expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.size()").isEqualTo(employees.size());
+    }
+
+    // junit test for export employees as ndjson
+    @DisplayName("junit test for export employees as ndjson")
+    @Test
+    void givenEmployees_whenExportAsNdjson_thenStreamEmployees() {
+        //given  - precondition or setup
+        given(employeeService.getAllEmployees()).willReturn(Flux.just(employee, employee));
+
+        //when - action or the behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange();
+        //then - verify the output
+        response.expectStatus().isOk()
+                .expectBodyList(Employee.class).hasSize(2);
+    }
+
+    // junit test for get employee by id
+    @DisplayName("junit test for get employee by id ")
+    @Test
+    void givenEmployeeId_whenGetEmployeeById_thenReturnEmployee() {
+        //given  - precondition or setup
+        long employeeId = 1L;
+        given(employeeService.getEmployeeById(employeeId)).willReturn(Mono.just(employee));
+
+        //when - action or the behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees/{id}", employeeId).exchange();
+        //then - verify the output
+        response.expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.email").isEqualTo(employee.getEmail());
+    }
+
+    // junit test for get employee by id not found
+    @DisplayName("junit test for get employee by id  not found")
+    @Test
+    void givenEmployeeId_whenGetEmployeeById_thenReturnEmployeeNotFound() {
+        //given  - precondition or setup
+        long employeeId = 1L;
+        given(employeeService.getEmployeeById(employeeId)).willReturn(Mono.empty());
+
+        //when - action or the behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees/{id}", employeeId).exchange();
+        //then - verify the output
+        response.expectStatus().isNotFound();
+    }
+
+    // junit test for update employee
+    @DisplayName("junit test for update employee")
+    @Test
+    void givenUpdatedEmployee_whenUpdateEmployee_thenReturnEmployeeObject() {
+        //given  - precondition or setup
+        long employeeId = 1L;
+        Employee updatedEmployee = employee(DENNO);
+        given(employeeService.getEmployeeById(employeeId)).willReturn(Mono.just(employee));
+        given(employeeService.updateEmployee(any(Employee.class)))
+                .willAnswer(invocationOnMock -> Mono.just(invocationOnMock.getArgument(0)));
+
+        //when - action or the behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.put().uri("/api/employees/{id}", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(updatedEmployee)
+                .exchange();
+        //then - verify the output
+        response.expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.firstName").isEqualTo(updatedEmployee.getFirstName());
+    }
+
+    // junit test for update employee not found
+    @DisplayName("junit test for update employee not found")
+    @Test
+    void givenUpdatedEmployee_whenUpdateEmployee_thenReturnEmployeeObjectNotFound() {
+        //given  - precondition or setup
+        long employeeId = 1L;
+        Employee updatedEmployee = employee(DENNO);
+        given(employeeService.getEmployeeById(employeeId)).willReturn(Mono.empty());
+
+        //when - action or the behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.put().uri("/api/employees/{id}", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(updatedEmployee)
+                .exchange();
+        //then - verify the output
+        response.expectStatus().isNotFound();
+    }
+
+    // junit test for delete employee
+    @DisplayName("junit test for delete employee ")
+    @Test
+    void givenEmployeeId_whenDeleteEmployee_thenRemoveEmployee() {
+        //given  - precondition or setup
+        long employeeId = 1L;
+        given(employeeService.deleteEmployee(employeeId)).willReturn(Mono.empty());
+        //when - action or the behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.delete().uri("/api/employees/{id}", employeeId).exchange();
+        //then - verify the output
+        response.expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("Deleted successfully");
+    }
+
+    private static Employee employee(EmployeeFixture fixture) {
+        return Employee.builder()
+                .firstName(fixture.firstName())
+                .lastName(fixture.lastName())
+                .email(fixture.email())
+                .build();
+    }
+}
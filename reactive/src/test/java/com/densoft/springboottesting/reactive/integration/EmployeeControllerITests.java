@@ -0,0 +1,234 @@
+package com.densoft.springboottesting.reactive.integration;
+
+import com.densoft.springboottesting.fixtures.EmployeeFixture;
+import com.densoft.springboottesting.reactive.model.Employee;
+import com.densoft.springboottesting.reactive.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static com.densoft.springboottesting.fixtures.EmployeeFixture.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+class EmployeeControllerITests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    private Employee employee;
+
+    @BeforeEach
+    void setUp() {
+        employeeRepository.deleteAll().block();
+        employee = employee(DENNIS);
+    }
+
+    // junit test for create employee
+    @DisplayName("junit test for  create employee")
+    @Test
+    void givenEmployeeObject_whenCreateEmployee_thenReturnSavedEmployee() {
+        //given  - precondition or setup
+
+
+        //when - action or the behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.post().uri("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employee)
+                .exchange();
+
+
+        //then - verify the output
+        response.expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.firstName").isEqualTo(employee.getFirstName())
+                .jsonPath("$.lastName").isEqualTo(employee.getLastName())
+                .jsonPath("$.email").isEqualTo(employee.getEmail());
+    }
+
+    // junit test for create employee ignores a client-supplied id
+    @DisplayName("junit test for create employee ignores a client-supplied id")
+    @Test
+    void givenEmployeeWithId_whenCreateEmployee_thenStoreGeneratedId() {
+        //given  - precondition or setup
+        // far above anything the identity column hands out in this test run
+        employee.setId(987_654_321L);
+        employee.setVersion(3L);
+
+        //when - action or the behaviour that we are going to test
+        Employee created = webTestClient.post().uri("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employee)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Employee.class)
+                .returnResult()
+                .getResponseBody();
+
+        //then - verify the output
+        assertNotNull(created);
+        assertNotEquals(987_654_321L, created.getId());
+        assertNotNull(employeeRepository.findById(created.getId()).block());
+        assertNull(employeeRepository.findById(987_654_321L).block());
+    }
+
+    // junit test for create employee with existing email
+    @DisplayName("junit test for create employee with existing email")
+    @Test
+    void givenExistingEmail_whenCreateEmployee_thenReturnBadRequest() {
+        //given  - precondition or setup
+        employeeRepository.save(Employee.builder()
+                .firstName("jane")
+                .lastName("doe")
+                .email(employee.getEmail())
+                .build()).block();
+
+        //when - action or the behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.post().uri("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employee)
+                .exchange();
+
+        //then - verify the output
+        response.expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Employee already exists with given email: " + employee.getEmail());
+    }
+
+
+    // junit test for get all employees
+    @DisplayName("junit test for get all employees ")
+    @Test
+    void givenEmployeesList_whenGetAllEmployees_thenReturnEmployees() {
+        //given  - precondition or setup
+        Employee employeeTwo = employee(JANE);
+
+        List<Employee> employees = List.of(employee, employeeTwo);
+
+        employeeRepository.saveAll(employees).blockLast();
+
+        //when - action or the behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees").exchange();
+        //then - verify the output
+        response.expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.size()").isEqualTo(employees.size());
+    }
+
+    // junit test for export employees as ndjson
+    @DisplayName("junit test for export employees as ndjson")
+    @Test
+    void givenEmployeesList_whenExportAsNdjson_thenStreamAllRows() {
+        //given  - precondition or setup
+        Employee employeeTwo = employee(JANE);
+        employeeRepository.saveAll(List.of(employee, employeeTwo)).blockLast();
+
+        //when - action or the behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange();
+        //then - verify the output
+        response.expectStatus().isOk()
+                .expectBodyList(Employee.class).hasSize(2);
+    }
+
+
+    // junit test for get employee by id
+    @DisplayName("junit test for get employee by id ")
+    @Test
+    void givenEmployeeId_whenGetEmployeeById_thenReturnEmployee() {
+        //given  - precondition or setup
+        Employee savedEmployee = employeeRepository.save(employee).block();
+
+        //when - action or the behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees/{id}", savedEmployee.getId()).exchange();
+        //then - verify the output
+        response.expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.email").isEqualTo(employee.getEmail());
+    }
+
+    // junit test for get employee by id not found
+    @DisplayName("junit test for get employee by id  not found")
+    @Test
+    void givenEmployeeId_whenGetEmployeeById_thenReturnEmployeeNotFound() {
+        //given  - precondition or setup
+        long employeeId = 1L;
+
+        //when - action or the behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees/{id}", employeeId).exchange();
+        //then - verify the output
+        response.expectStatus().isNotFound();
+    }
+
+    // junit test for update employee
+    @DisplayName("junit test for update employee")
+    @Test
+    void givenUpdatedEmployee_whenUpdateEmployee_thenReturnEmployeeObject() {
+        //given  - precondition or setup
+        Employee updatedEmployee = employee(DENNO);
+
+        Employee savedEmployee = employeeRepository.save(employee).block();
+
+        //when - action or the behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.put().uri("/api/employees/{id}", savedEmployee.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(updatedEmployee)
+                .exchange();
+        //then - verify the output
+        response.expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.firstName").isEqualTo(updatedEmployee.getFirstName());
+    }
+
+    // junit test for update employee not found
+    @DisplayName("junit test for update employee not found")
+    @Test
+    void givenUpdatedEmployee_whenUpdateEmployee_thenReturnEmployeeObjectNotFound() {
+        //given  - precondition or setup
+        long employeeId = 1L;
+        Employee updatedEmployee = employee(DENNO);
+
+
+        //when - action or the behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.put().uri("/api/employees/{id}", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(updatedEmployee)
+                .exchange();
+        //then - verify the output
+        response.expectStatus().isNotFound();
+    }
+
+
+    // junit test for delete employee
+    @DisplayName("junit test for delete employee ")
+    @Test
+    void givenEmployeeId_whenDeleteEmployee_thenRemoveEmployee() {
+        //given  - precondition or setup
+        Employee savedEmployee = employeeRepository.save(employee).block();
+        //when - action or the behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.delete().uri("/api/employees/{id}", savedEmployee.getId()).exchange();
+        //then - verify the output
+        response.expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("Deleted successfully");
+    }
+
+    private static Employee employee(EmployeeFixture fixture) {
+        return Employee.builder()
+                .firstName(fixture.firstName())
+                .lastName(fixture.lastName())
+                .email(fixture.email())
+                .build();
+    }
+}
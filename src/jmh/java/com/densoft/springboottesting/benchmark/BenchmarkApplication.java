@@ -0,0 +1,39 @@
+package com.densoft.springboottesting.benchmark;
+
+import com.densoft.springboottesting.SpringBootTestingApplication;
+import com.densoft.springboottesting.model.Employee;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application against embedded H2 without a web server, quiet enough not to skew measurements.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.jpa.show-sql=false", "logging.level.root=WARN")
+                .properties(properties)
+                .run();
+    }
+
+    static List<Employee> employees(String prefix, int count) {
+        List<Employee> employees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            employees.add(Employee.builder()
+                    .firstName("first" + i)
+                    .lastName("last" + i)
+                    .email(prefix + i + "@gmail.com")
+                    .build());
+        }
+        return employees;
+    }
+}
@@ -0,0 +1,70 @@
+package com.densoft.springboottesting.benchmark;
+
+import com.densoft.springboottesting.dto.EmployeeView;
+import com.densoft.springboottesting.model.Employee;
+import com.densoft.springboottesting.repository.EmployeeRepository;
+import com.densoft.springboottesting.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the whole table as managed entities in a read-write transaction (hydrated and snapshotted for dirty
+ * checking), as entities in a read-only transaction (hydrated, no snapshot) and as {@link EmployeeView}
+ * projections (no entities at all). Run with {@code -prof gc} to compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeProjectionBenchmark {
+
+    @Param({"10000", "100000"})
+    private int tableSize;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeRepository employeeRepository;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        employeeRepository = context.getBean(EmployeeRepository.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        EmployeeService employeeService = context.getBean(EmployeeService.class);
+        List<Employee> seed = BenchmarkApplication.employees("projection", tableSize);
+        for (int from = 0; from < tableSize; from += 1000)
+            employeeService.saveEmployees(seed.subList(from, Math.min(from + 1000, tableSize)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Employee> entitiesReadWrite() {
+        // flushes on commit, so every loaded entity is dirty-checked against its snapshot
+        return readWrite.execute(status -> employeeRepository.findAll());
+    }
+
+    @Benchmark
+    public List<Employee> entitiesReadOnly() {
+        return readOnly.execute(status -> employeeRepository.findAll());
+    }
+
+    @Benchmark
+    public List<EmployeeView> views() {
+        return employeeRepository.findAllViews();
+    }
+}
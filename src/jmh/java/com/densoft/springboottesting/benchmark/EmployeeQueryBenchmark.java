@@ -0,0 +1,66 @@
+package com.densoft.springboottesting.benchmark;
+
+import com.densoft.springboottesting.model.Employee;
+import com.densoft.springboottesting.repository.EmployeeRepository;
+import com.densoft.springboottesting.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the four findByBothNames variants (JPQL vs native SQL, indexed vs named parameters). Only the JPQL
+ * variants are cacheable, so the query and second-level caches are switched off and every variant runs its SQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeQueryBenchmark {
+
+    private static final int TABLE_SIZE = 1000;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeRepository employeeRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(
+                "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=false");
+        employeeRepository = context.getBean(EmployeeRepository.class);
+        context.getBean(EmployeeService.class).saveEmployees(BenchmarkApplication.employees("query", TABLE_SIZE));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Employee findByBothNames() {
+        int i = ThreadLocalRandom.current().nextInt(TABLE_SIZE);
+        return employeeRepository.findByBothNames("first" + i, "last" + i);
+    }
+
+    @Benchmark
+    public Employee findByBothNamesNamedParams() {
+        int i = ThreadLocalRandom.current().nextInt(TABLE_SIZE);
+        return employeeRepository.findByBothNamesNamedParams("first" + i, "last" + i);
+    }
+
+    @Benchmark
+    public Employee findByBothNamesNativeQuery() {
+        int i = ThreadLocalRandom.current().nextInt(TABLE_SIZE);
+        return employeeRepository.findByBothNamesNativeQuery("first" + i, "last" + i);
+    }
+
+    @Benchmark
+    public Employee findByBothNamesNativeQueryNamedParams() {
+        int i = ThreadLocalRandom.current().nextInt(TABLE_SIZE);
+        return employeeRepository.findByBothNamesNativeQueryNamedParams("first" + i, "last" + i);
+    }
+}
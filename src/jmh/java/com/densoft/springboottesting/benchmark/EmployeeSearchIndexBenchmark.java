@@ -0,0 +1,70 @@
+package com.densoft.springboottesting.benchmark;
+
+import com.densoft.springboottesting.dto.EmployeeView;
+import com.densoft.springboottesting.service.EmployeeSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typeahead search latency over an index of up to a million employees, without Spring or a database. The setup
+ * prints the heap the filled index retains, measured as used heap after a full GC before and after loading it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EmployeeSearchIndexBenchmark {
+
+    private static final String[] FIRST_NAMES = {"dennis", "jane", "daniel", "david", "diana", "john", "joseph",
+            "julia", "mary", "martin", "michael", "monica", "peter", "paul", "grace", "george"};
+
+    @Param({"100000", "1000000"})
+    private int indexSize;
+
+    private EmployeeSearchIndex employeeSearchIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        long before = usedHeapAfterGc();
+        // the repository is only read by load(), which is not called here
+        employeeSearchIndex = new EmployeeSearchIndex(null, new SimpleMeterRegistry());
+        for (int i = 0; i < indexSize; i++)
+            employeeSearchIndex.index(new EmployeeView(i + 1, FIRST_NAMES[i % FIRST_NAMES.length], "surname" + i,
+                    "employee" + i + "@gmail.com", 0L));
+        long retained = usedHeapAfterGc() - before;
+        System.out.printf("%nEmployeeSearchIndex retains %d bytes for %d employees, %.0f bytes per employee%n",
+                retained, indexSize, (double) retained / indexSize);
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++)
+            memory.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    // a two-letter prefix shared by a large share of the index; bounded by the candidate cap
+    @Benchmark
+    public List<EmployeeView> searchShortPrefix() {
+        return employeeSearchIndex.search("da", 10);
+    }
+
+    @Benchmark
+    public List<EmployeeView> searchFullName() {
+        int i = ThreadLocalRandom.current().nextInt(indexSize);
+        return employeeSearchIndex.search(FIRST_NAMES[i % FIRST_NAMES.length] + " surname" + i, 10);
+    }
+
+    @Benchmark
+    public List<EmployeeView> searchEmailPrefix() {
+        return employeeSearchIndex.search("employee" + ThreadLocalRandom.current().nextInt(indexSize), 10);
+    }
+}
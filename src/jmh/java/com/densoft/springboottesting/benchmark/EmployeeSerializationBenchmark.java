@@ -0,0 +1,63 @@
+package com.densoft.springboottesting.benchmark;
+
+import com.densoft.springboottesting.model.Employee;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeSerializationBenchmark {
+
+    private static final TypeReference<List<Employee>> EMPLOYEE_LIST = new TypeReference<>() {
+    };
+
+    @Param({"1000", "100000"})
+    private int listSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Employee employee;
+    private String employeeJson;
+    private List<Employee> employees;
+    private String employeesJson;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        employees = BenchmarkApplication.employees("json", listSize);
+        for (int i = 0; i < employees.size(); i++) {
+            employees.get(i).setId(i + 1);
+            employees.get(i).setVersion(0L);
+        }
+        employee = employees.get(0);
+        employeeJson = objectMapper.writeValueAsString(employee);
+        employeesJson = objectMapper.writeValueAsString(employees);
+    }
+
+    @Benchmark
+    public String serializeEmployee() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(employee);
+    }
+
+    @Benchmark
+    public Employee deserializeEmployee() throws JsonProcessingException {
+        return objectMapper.readValue(employeeJson, Employee.class);
+    }
+
+    @Benchmark
+    public byte[] serializeEmployeeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(employees);
+    }
+
+    @Benchmark
+    public List<Employee> deserializeEmployeeList() throws JsonProcessingException {
+        return objectMapper.readValue(employeesJson, EMPLOYEE_LIST);
+    }
+}
@@ -0,0 +1,84 @@
+package com.densoft.springboottesting.benchmark;
+
+import com.densoft.springboottesting.dto.EmployeeView;
+import com.densoft.springboottesting.model.Employee;
+import com.densoft.springboottesting.repository.EmployeeRepository;
+import com.densoft.springboottesting.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeServiceBenchmark {
+
+    @Param({"1000", "10000"})
+    private int tableSize;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+    private EmployeeRepository employeeRepository;
+    private long[] ids;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        employeeService = context.getBean(EmployeeService.class);
+        employeeRepository = context.getBean(EmployeeRepository.class);
+        List<Employee> seed = BenchmarkApplication.employees("seed", tableSize);
+        ids = new long[tableSize];
+        for (int from = 0; from < tableSize; from += 1000) {
+            int to = Math.min(from + 1000, tableSize);
+            var results = employeeService.saveEmployees(seed.subList(from, to));
+            for (int i = 0; i < results.size(); i++)
+                ids[from + i] = results.get(i).employee().getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Employee saveEmployee() {
+        long n = sequence.incrementAndGet();
+        return employeeService.saveEmployee(Employee.builder()
+                .firstName("bench")
+                .lastName("mark")
+                .email("bench" + n + "@gmail.com")
+                .build());
+    }
+
+    // every id is cached after the first pass, so this measures a Caffeine hit behind the @Cacheable proxy
+    @Benchmark
+    public Optional<EmployeeView> getEmployeeByIdCached() {
+        return employeeService.getEmployeeById(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    // the query getEmployeeById runs on a cache miss
+    @Benchmark
+    public Optional<EmployeeView> findViewById() {
+        return employeeRepository.findViewById(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    public List<EmployeeView> getAllEmployees() {
+        return employeeService.getAllEmployees();
+    }
+
+    @Benchmark
+    public Object getEmployeePage() {
+        return employeeService.getEmployeePage(ids[ThreadLocalRandom.current().nextInt(ids.length)], 50);
+    }
+}
@@ -0,0 +1,54 @@
+package com.densoft.springboottesting.benchmark;
+
+import com.densoft.springboottesting.dto.EmployeeView;
+import com.densoft.springboottesting.service.EmployeeSearchIndex;
+import com.densoft.springboottesting.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the {@code @Timed("employees.service")} aspect: the same in-memory search called through the timed
+ * service proxy and on the index directly. The difference is the proxy plus recording into the percentile
+ * histogram configured for the timer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeTimingBenchmark {
+
+    private static final int TABLE_SIZE = 1000;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+    private EmployeeSearchIndex employeeSearchIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        employeeService = context.getBean(EmployeeService.class);
+        employeeSearchIndex = context.getBean(EmployeeSearchIndex.class);
+        employeeService.saveEmployees(BenchmarkApplication.employees("timing", TABLE_SIZE));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<EmployeeView> timedSearch() {
+        return employeeService.searchEmployees("first" + ThreadLocalRandom.current().nextInt(TABLE_SIZE), 10);
+    }
+
+    @Benchmark
+    public List<EmployeeView> untimedSearch() {
+        return employeeSearchIndex.search("first" + ThreadLocalRandom.current().nextInt(TABLE_SIZE), 10);
+    }
+}
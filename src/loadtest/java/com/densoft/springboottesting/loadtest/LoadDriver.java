@@ -0,0 +1,270 @@
+package com.densoft.springboottesting.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a weighted mix of requests against a running application over HTTP and records the latency of each
+ * operation in an HdrHistogram. In the open model, latency is measured from the time a request was scheduled to
+ * start rather than from when it was sent, so a stalled server is charged for the requests queued behind it
+ * (no coordinated omission).
+ */
+class LoadDriver {
+
+    private static final String JSON = "application/json";
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final LoadTestSettings settings;
+    private final URI api;
+    private final ObjectMapper objectMapper;
+    private final HttpClient client;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+    private final IdPool ids = new IdPool();
+    // unique per run, so emails do not collide with rows left by a previous run against the same database
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile boolean recording;
+
+    LoadDriver(LoadTestSettings settings, URI api, ObjectMapper objectMapper) {
+        this.settings = settings;
+        this.api = api;
+        this.objectMapper = objectMapper;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        this.operations = settings.mix().keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += settings.mix().get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        for (Operation operation : operations)
+            stats.put(operation, new Stats());
+    }
+
+    LoadTestReport run() throws IOException, InterruptedException {
+        seed();
+        if (settings.warmup() != null && !settings.warmup().isZero())
+            runPhase(settings.warmup());
+        recording = true;
+        long start = System.nanoTime();
+        runPhase(settings.duration());
+        long elapsed = System.nanoTime() - start;
+        recording = false;
+        return LoadTestReport.of(settings, elapsed, stats);
+    }
+
+    Map<Operation, Stats> stats() {
+        return stats;
+    }
+
+    private void seed() throws IOException, InterruptedException {
+        for (int from = 0; from < settings.seedEmployees(); from += 1000) {
+            int count = Math.min(1000, settings.seedEmployees() - from);
+            List<Map<String, String>> batch = new ArrayList<>(count);
+            for (int i = 0; i < count; i++)
+                batch.add(newEmployee());
+            HttpResponse<String> response = client.send(jsonRequest(api.resolve("employees/batch"), "POST", batch),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 404 || response.statusCode() == 405) {
+                // no batch endpoint (the reactive variant); create the rows one at a time
+                seedOneByOne(batch);
+                continue;
+            }
+            if (response.statusCode() != 200)
+                throw new IllegalStateException("Seeding failed with status " + response.statusCode() + ": " + response.body());
+            for (JsonNode result : objectMapper.readTree(response.body()))
+                if ("CREATED".equals(result.path("status").asText()))
+                    ids.add(result.path("employee").path("id").asLong());
+        }
+    }
+
+    private void seedOneByOne(List<Map<String, String>> employees) throws IOException, InterruptedException {
+        for (Map<String, String> employee : employees) {
+            HttpResponse<String> response = client.send(jsonRequest(api.resolve("employees"), "POST", employee),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 201)
+                throw new IllegalStateException("Seeding failed with status " + response.statusCode() + ": " + response.body());
+            ids.add(objectMapper.readTree(response.body()).path("id").asLong());
+        }
+    }
+
+    private void runPhase(Duration length) throws InterruptedException {
+        long start = System.nanoTime();
+        long end = start + length.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            if (settings.rate() > 0)
+                openLoop(executor, start, end);
+            else
+                closedLoop(executor, end);
+        }
+    }
+
+    private void closedLoop(ExecutorService executor, long end) {
+        for (int i = 0; i < settings.concurrency(); i++) {
+            executor.submit(() -> {
+                while (System.nanoTime() < end)
+                    execute(nextOperation(), System.nanoTime());
+            });
+        }
+    }
+
+    private void openLoop(ExecutorService executor, long start, long end) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(settings.concurrency());
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.rate();
+        for (long i = 0; ; i++) {
+            long intendedStart = start + (long) (i * intervalNanos);
+            if (intendedStart >= end)
+                break;
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0)
+                LockSupport.parkNanos(wait);
+            // when the cap is reached the schedule slips, and the slip shows up in the recorded latency
+            inFlight.acquire();
+            executor.submit(() -> {
+                try {
+                    execute(nextOperation(), intendedStart);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+    }
+
+    private Operation nextOperation() {
+        int pick = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++)
+            if (pick < cumulativeWeights[i])
+                return operations[i];
+        throw new IllegalStateException("unreachable");
+    }
+
+    private void execute(Operation operation, long startNanos) {
+        int status;
+        boolean ok;
+        try {
+            long id = operation == Operation.DELETE ? ids.take() : ids.random();
+            if (id < 0 && operation != Operation.CREATE && operation != Operation.LIST) {
+                // nothing left to read, change or delete; the mix has deleted faster than it created
+                operation = Operation.CREATE;
+                id = 0;
+            }
+            HttpResponse<String> response = client.send(request(operation, id), HttpResponse.BodyHandlers.ofString());
+            status = response.statusCode();
+            ok = switch (operation) {
+                case CREATE -> status == 201;
+                // another worker may have deleted the id since it was picked
+                case GET, UPDATE -> status == 200 || status == 404;
+                case DELETE, LIST -> status == 200;
+            };
+            if (operation == Operation.CREATE && status == 201)
+                ids.add(objectMapper.readTree(response.body()).path("id").asLong());
+        } catch (IOException e) {
+            status = -1;
+            ok = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (recording) {
+            Stats operationStats = stats.get(operation);
+            if (operationStats == null)
+                return;
+            operationStats.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos), status, ok);
+        }
+    }
+
+    private HttpRequest request(Operation operation, long id) throws IOException {
+        return switch (operation) {
+            case CREATE -> jsonRequest(api.resolve("employees"), "POST", newEmployee());
+            case GET -> HttpRequest.newBuilder(api.resolve("employees/" + id)).timeout(Duration.ofSeconds(30)).GET().build();
+            case UPDATE -> jsonRequest(api.resolve("employees/" + id), "PUT", newEmployee());
+            case DELETE -> HttpRequest.newBuilder(api.resolve("employees/" + id)).timeout(Duration.ofSeconds(30)).DELETE().build();
+            case LIST -> HttpRequest.newBuilder(api.resolve("employees?after=" + Math.max(id, 0) + "&limit=20"))
+                    .timeout(Duration.ofSeconds(30)).GET().build();
+        };
+    }
+
+    private HttpRequest jsonRequest(URI uri, String method, Object body) throws IOException {
+        return HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", JSON)
+                .header("Accept", JSON)
+                .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+    }
+
+    private Map<String, String> newEmployee() {
+        long n = sequence.incrementAndGet();
+        return Map.of("firstName", "load" + n, "lastName", "test", "email", "load-" + runId + "-" + n + "@gmail.com");
+    }
+
+    static final class Stats {
+        final Histogram latencyMicros = new ConcurrentHistogram(3);
+        final LongAdder errors = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        void record(long micros, int status, boolean ok) {
+            latencyMicros.recordValue(Math.max(micros, 1));
+            statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+            // shed by admission control: the server protecting itself, reported apart from failures
+            if (status == TOO_MANY_REQUESTS)
+                rejected.increment();
+            else if (!ok)
+                errors.increment();
+        }
+    }
+
+    // ids known to exist; swap-remove keeps take() O(1)
+    private static final class IdPool {
+        private long[] ids = new long[1024];
+        private int size;
+
+        synchronized void add(long id) {
+            if (size == ids.length)
+                ids = Arrays.copyOf(ids, size * 2);
+            ids[size++] = id;
+        }
+
+        synchronized long random() {
+            return size == 0 ? -1 : ids[ThreadLocalRandom.current().nextInt(size)];
+        }
+
+        synchronized long take() {
+            if (size == 0)
+                return -1;
+            int index = ThreadLocalRandom.current().nextInt(size);
+            long id = ids[index];
+            ids[index] = ids[--size];
+            return id;
+        }
+    }
+}
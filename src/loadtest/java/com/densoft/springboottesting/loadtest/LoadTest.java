@@ -0,0 +1,59 @@
+package com.densoft.springboottesting.loadtest;
+
+import com.densoft.springboottesting.SpringBootTestingApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+
+/**
+ * Boots the application on a random port, or uses the one at {@code loadtest.base-url}, runs {@link LoadDriver}
+ * against it and writes the report. Exits with status 1 when an SLO is breached, which fails the {@code loadtest}
+ * Maven profile.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        LoadTestReport report = settings.baseUrl() != null ? runAgainst(settings) : runEmbedded(settings, args);
+        System.out.print(report.text());
+        System.out.println("Report written to " + settings.reportDirectory().toAbsolutePath());
+        System.exit(report.sloBreaches().isEmpty() ? 0 : 1);
+    }
+
+    private static LoadTestReport runEmbedded(LoadTestSettings settings, String[] args) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                .profiles(settings.profiles())
+                .properties("server.port=0", "logging.level.root=WARN")
+                .run(args);
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            return run(settings, URI.create("http://localhost:" + port + "/api/"), context.getBean(ObjectMapper.class));
+        } finally {
+            context.close();
+        }
+    }
+
+    // an application started separately, such as reactive/; the mapper matches Boot's date and duration handling
+    private static LoadTestReport runAgainst(LoadTestSettings settings) throws Exception {
+        ObjectMapper objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .build();
+        return run(settings, settings.baseUrl().resolve("/api/"), objectMapper);
+    }
+
+    private static LoadTestReport run(LoadTestSettings settings, URI api, ObjectMapper objectMapper) throws Exception {
+        LoadDriver driver = new LoadDriver(settings, api, objectMapper);
+        LoadTestReport report = driver.run();
+        report.write(settings.reportDirectory(), objectMapper, driver.stats());
+        return report;
+    }
+}
@@ -0,0 +1,171 @@
+package com.densoft.springboottesting.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Result of one load test run: throughput, error rate, rejections and latency percentiles per operation and in
+ * total, and the SLO thresholds that were breached. Latencies are in milliseconds. Requests rejected with
+ * {@code 429} are counted as rejected rather than as errors, so they do not count against the error rate SLO.
+ */
+record LoadTestReport(Instant finishedAt,
+                      LoadTestSettings settings,
+                      double seconds,
+                      OperationSummary total,
+                      Map<String, OperationSummary> operations,
+                      List<String> sloBreaches) {
+
+    record OperationSummary(long requests, long errors, double errorRate, long rejected, double rejectedRate,
+                            double throughput, Map<String, Long> statuses, Latency latency) {
+    }
+
+    record Latency(double min, double mean, double p50, double p90, double p99, double p999, double max) {
+
+        static Latency of(Histogram micros) {
+            return new Latency(millis(micros.getMinValue()), micros.getMean() / 1000.0,
+                    millis(micros.getValueAtPercentile(50)), millis(micros.getValueAtPercentile(90)),
+                    millis(micros.getValueAtPercentile(99)), millis(micros.getValueAtPercentile(99.9)),
+                    millis(micros.getMaxValue()));
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+
+    static LoadTestReport of(LoadTestSettings settings, long elapsedNanos, Map<Operation, LoadDriver.Stats> stats) {
+        double seconds = elapsedNanos / 1e9;
+        Map<String, OperationSummary> operations = new LinkedHashMap<>();
+        Histogram all = new Histogram(3);
+        long errors = 0;
+        long rejected = 0;
+        Map<String, Long> statuses = new TreeMap<>();
+        for (Map.Entry<Operation, LoadDriver.Stats> entry : stats.entrySet()) {
+            LoadDriver.Stats operationStats = entry.getValue();
+            OperationSummary summary = summary(operationStats.latencyMicros, operationStats.errors.sum(),
+                    operationStats.rejected.sum(), statuses(operationStats), seconds);
+            operations.put(entry.getKey().key(), summary);
+            all.add(operationStats.latencyMicros);
+            errors += summary.errors();
+            rejected += summary.rejected();
+            summary.statuses().forEach((status, count) -> statuses.merge(status, count, Long::sum));
+        }
+        OperationSummary total = summary(all, errors, rejected, statuses, seconds);
+        return new LoadTestReport(Instant.now(), settings, seconds, total, operations, breaches(settings, total, operations));
+    }
+
+    private static OperationSummary summary(Histogram micros, long errors, long rejected, Map<String, Long> statuses,
+                                            double seconds) {
+        long requests = micros.getTotalCount();
+        return new OperationSummary(requests, errors, requests == 0 ? 0 : (double) errors / requests,
+                rejected, requests == 0 ? 0 : (double) rejected / requests, requests / seconds, statuses, Latency.of(micros));
+    }
+
+    // -1 stands for requests that failed without a response (connect errors, timeouts)
+    private static Map<String, Long> statuses(LoadDriver.Stats stats) {
+        Map<String, Long> statuses = new TreeMap<>();
+        stats.statuses.forEach((status, count) -> statuses.put(status < 0 ? "io-error" : status.toString(), count.sum()));
+        return statuses;
+    }
+
+    private static List<String> breaches(LoadTestSettings settings, OperationSummary total,
+                                         Map<String, OperationSummary> operations) {
+        List<String> breaches = new ArrayList<>();
+        operations.forEach((operation, summary) -> {
+            if (summary.requests() == 0)
+                return;
+            check(breaches, operation + " p50", summary.latency().p50(), settings.sloP50());
+            check(breaches, operation + " p99", summary.latency().p99(), settings.sloP99());
+        });
+        if (total.errorRate() > settings.sloMaxErrorRate())
+            breaches.add("error rate %.4f above %.4f".formatted(total.errorRate(), settings.sloMaxErrorRate()));
+        if (total.throughput() < settings.sloMinThroughput())
+            breaches.add("throughput %.1f/s below %.1f/s".formatted(total.throughput(), settings.sloMinThroughput()));
+        return breaches;
+    }
+
+    private static void check(List<String> breaches, String name, double millis, Duration threshold) {
+        if (threshold != null && millis > threshold.toNanos() / 1e6)
+            breaches.add("%s %.2f ms above %d ms".formatted(name, millis, threshold.toMillis()));
+    }
+
+    /**
+     * Writes {@code report.json}, {@code report.html} and one HdrHistogram percentile distribution per operation
+     * ({@code <operation>.hgrm}, in milliseconds, loadable in the HdrHistogram plotter).
+     */
+    void write(Path directory, ObjectMapper objectMapper, Map<Operation, LoadDriver.Stats> stats) throws IOException {
+        Files.createDirectories(directory);
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(directory.resolve("report.json").toFile(), this);
+        Files.writeString(directory.resolve("report.html"), html(), StandardCharsets.UTF_8);
+        for (Map.Entry<Operation, LoadDriver.Stats> entry : stats.entrySet()) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(entry.getKey().key() + ".hgrm")),
+                    false, StandardCharsets.UTF_8)) {
+                entry.getValue().latencyMicros.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    String text() {
+        StringBuilder text = new StringBuilder();
+        text.append("%-8s %10s %8s %8s %10s %9s %9s %9s %9s%n".formatted("", "requests", "errors", "rejected", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        operations.forEach((operation, summary) -> text.append(row(operation, summary)));
+        text.append(row("total", total));
+        if (sloBreaches.isEmpty())
+            text.append("SLOs met\n");
+        else
+            sloBreaches.forEach(breach -> text.append("SLO breached: ").append(breach).append('\n'));
+        return text.toString();
+    }
+
+    private static String row(String name, OperationSummary summary) {
+        return "%-8s %10d %8d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n".formatted(name, summary.requests(), summary.errors(),
+                summary.rejected(), summary.throughput(), summary.latency().p50(), summary.latency().p90(), summary.latency().p99(),
+                summary.latency().max());
+    }
+
+    private String html() {
+        StringBuilder html = new StringBuilder("""
+                <!DOCTYPE html>
+                <html><head><meta charset="utf-8"><title>Employee API load test</title>
+                <style>body{font-family:sans-serif}table{border-collapse:collapse}td,th{border:1px solid #ccc;padding:4px 8px;text-align:right}
+                .fail{color:#b00}.pass{color:#070}</style></head><body>
+                <h1>Employee API load test</h1>
+                """);
+        html.append("<p>Finished ").append(finishedAt).append(", measured for %.1f s, ".formatted(seconds))
+                .append(settings.rate() > 0 ? "open model at %.1f req/s".formatted(settings.rate()) : "closed model")
+                .append(" with concurrency ").append(settings.concurrency()).append(".</p>\n");
+        html.append("<table><tr><th>operation</th><th>requests</th><th>errors</th><th>error rate</th><th>rejected</th><th>req/s</th>")
+                .append("<th>min</th><th>mean</th><th>p50</th><th>p90</th><th>p99</th><th>p99.9</th><th>max</th><th>statuses</th></tr>\n");
+        operations.forEach((operation, summary) -> html.append(htmlRow(operation, summary)));
+        html.append(htmlRow("total", total)).append("</table>\n<p>Latencies in milliseconds.</p>\n");
+        if (sloBreaches.isEmpty()) {
+            html.append("<p class=\"pass\">All SLOs met.</p>\n");
+        } else {
+            html.append("<ul class=\"fail\">\n");
+            sloBreaches.forEach(breach -> html.append("<li>").append(breach).append("</li>\n"));
+            html.append("</ul>\n");
+        }
+        return html.append("</body></html>\n").toString();
+    }
+
+    private static String htmlRow(String name, OperationSummary summary) {
+        Latency latency = summary.latency();
+        return "<tr><th>%s</th><td>%d</td><td>%d</td><td>%.4f</td><td>%d</td><td>%.1f</td><td>%.2f</td><td>%.2f</td><td>%.2f</td><td>%.2f</td><td>%.2f</td><td>%.2f</td><td>%.2f</td><td>%s</td></tr>%n"
+                .formatted(name, summary.requests(), summary.errors(), summary.errorRate(), summary.rejected(), summary.throughput(),
+                        latency.min(), latency.mean(), latency.p50(), latency.p90(), latency.p99(), latency.p999(),
+                        latency.max(), summary.statuses());
+    }
+}
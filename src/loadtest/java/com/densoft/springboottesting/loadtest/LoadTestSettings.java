@@ -0,0 +1,63 @@
+package com.densoft.springboottesting.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Load test parameters, read from {@code loadtest.*} system properties (set by the {@code loadtest} Maven profile).
+ * A {@code rate} above zero runs an open model at that many requests per second, with {@code concurrency} as the
+ * cap on requests in flight. A rate of zero runs a closed model of {@code concurrency} workers issuing requests
+ * back to back. SLO thresholds left empty are not checked. With a {@code base-url} the driver targets an application
+ * that is already running (the reactive variant, for example) instead of booting this one, and {@code profiles} is
+ * ignored.
+ */
+record LoadTestSettings(Duration warmup,
+                        Duration duration,
+                        int concurrency,
+                        double rate,
+                        Map<Operation, Integer> mix,
+                        int seedEmployees,
+                        String[] profiles,
+                        URI baseUrl,
+                        Path reportDirectory,
+                        Duration sloP50,
+                        Duration sloP99,
+                        double sloMaxErrorRate,
+                        double sloMinThroughput) {
+
+    static LoadTestSettings fromSystemProperties() {
+        LoadTestSettings settings = new LoadTestSettings(
+                duration("loadtest.warmup", "10s"),
+                duration("loadtest.duration", "60s"),
+                Integer.parseInt(property("loadtest.concurrency", "32")),
+                Double.parseDouble(property("loadtest.rate", "0")),
+                Operation.parseMix(property("loadtest.mix", "create=10,get=60,update=15,delete=5,list=10")),
+                Integer.parseInt(property("loadtest.seed-employees", "1000")),
+                property("loadtest.profiles", "").isBlank() ? new String[0] : property("loadtest.profiles", "").split(","),
+                property("loadtest.base-url", "").isBlank() ? null : URI.create(property("loadtest.base-url", "")),
+                Path.of(property("loadtest.report-directory", "target/loadtest")),
+                duration("loadtest.slo.p50", ""),
+                duration("loadtest.slo.p99", ""),
+                Double.parseDouble(property("loadtest.slo.max-error-rate", "1")),
+                Double.parseDouble(property("loadtest.slo.min-throughput", "0")));
+        if (settings.concurrency() < 1)
+            throw new IllegalArgumentException("loadtest.concurrency must be at least 1");
+        if (settings.duration().isZero() || settings.duration().isNegative())
+            throw new IllegalArgumentException("loadtest.duration must be positive");
+        return settings;
+    }
+
+    private static String property(String name, String defaultValue) {
+        String value = System.getProperty(name);
+        return value != null ? value.trim() : defaultValue;
+    }
+
+    private static Duration duration(String name, String defaultValue) {
+        String value = property(name, defaultValue);
+        return value.isEmpty() ? null : DurationStyle.detectAndParse(value);
+    }
+}
@@ -0,0 +1,39 @@
+package com.densoft.springboottesting.loadtest;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Request types the load driver issues against {@code /api/employees}.
+ */
+enum Operation {
+    CREATE, GET, UPDATE, DELETE, LIST;
+
+    String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Parses a mix such as {@code create=10,get=60,update=15,delete=5,list=10}. Weights are relative, operations
+     * left out are not issued.
+     */
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            if (entry.isBlank())
+                continue;
+            String[] parts = entry.split("=", 2);
+            if (parts.length != 2)
+                throw new IllegalArgumentException("Mix entries must look like <operation>=<weight>, got " + entry);
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0)
+                throw new IllegalArgumentException("Weight of " + parts[0].trim() + " must not be negative");
+            if (weight > 0)
+                weights.put(valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), weight);
+        }
+        if (weights.isEmpty())
+            throw new IllegalArgumentException("Mix must give at least one operation a positive weight");
+        return weights;
+    }
+}
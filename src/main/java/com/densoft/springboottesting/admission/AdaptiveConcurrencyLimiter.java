@@ -0,0 +1,99 @@
+package com.densoft.springboottesting.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrency limit adjusted by AIMD. A request completing within the target latency while the limit is in real
+ * use raises the limit by {@code 1/limit}, which adds about one slot per limit's worth of requests. A slow
+ * completion, or one that finishes while threads are queued for a database connection, multiplies the limit by
+ * {@code backoffRatio}. Decreases happen at most once per target latency, so one burst of slow responses
+ * counts as one congestion signal.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+    private final BooleanSupplier congested;
+    private final LongSupplier nanoClock;
+    private final Counter rejected;
+    private double limit;
+    private int inFlight;
+    private long lastDecrease;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, Duration targetLatency,
+                                      double backoffRatio, BooleanSupplier congested, MeterRegistry meterRegistry) {
+        this(name, initialLimit, minLimit, maxLimit, targetLatency, backoffRatio, congested, meterRegistry, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, Duration targetLatency,
+                               double backoffRatio, BooleanSupplier congested, MeterRegistry meterRegistry,
+                               LongSupplier nanoClock) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit)
+            throw new IllegalArgumentException("limits of " + name + " must satisfy 1 <= min <= initial <= max");
+        if (backoffRatio <= 0 || backoffRatio >= 1)
+            throw new IllegalArgumentException("backoff ratio of " + name + " must be in (0, 1)");
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatency.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.congested = congested;
+        this.nanoClock = nanoClock;
+        this.limit = initialLimit;
+        this.lastDecrease = nanoClock.getAsLong() - targetLatencyNanos;
+        Gauge.builder("employees.admission.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current concurrency limit")
+                .tag("kind", name)
+                .register(meterRegistry);
+        Gauge.builder("employees.admission.in.flight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests currently admitted")
+                .tag("kind", name)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("employees.admission.rejected")
+                .description("Requests shed with 429 because the concurrency limit was reached")
+                .tag("kind", name)
+                .register(meterRegistry);
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            rejected.increment();
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    public void release(long latencyNanos) {
+        // sampled outside the lock, the pool MXBean call is not free
+        boolean overloaded = latencyNanos > targetLatencyNanos || congested.getAsBoolean();
+        long now = nanoClock.getAsLong();
+        synchronized (this) {
+            if (overloaded) {
+                if (now - lastDecrease >= targetLatencyNanos) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastDecrease = now;
+                }
+            } else if (inFlight * 2 >= limit) {
+                // only grow while the limit is actually being used, otherwise an idle service inflates it to max
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            inFlight--;
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,78 @@
+package com.densoft.springboottesting.admission;
+
+import com.densoft.springboottesting.routing.ReplicaRoutingDataSource;
+import com.densoft.springboottesting.sharding.ShardRoutingDataSource;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "employees.admission.enabled", havingValue = "true")
+public class AdmissionControlConfig {
+
+    @Bean
+    public PoolCongestion poolCongestion(DataSource dataSource,
+                                         ObjectProvider<ReplicaRoutingDataSource> replicaRouting,
+                                         ObjectProvider<ShardRoutingDataSource> shardRouting) {
+        // a routing data source only unwraps to its default target, so every pool behind it is listed explicitly
+        List<DataSource> pools = new ArrayList<>();
+        replicaRouting.ifAvailable(routing -> pools.addAll(routing.targets()));
+        shardRouting.ifAvailable(routing -> pools.addAll(routing.shards()));
+        if (pools.isEmpty())
+            pools.add(dataSource);
+        PoolCongestion congestion = PoolCongestion.of(pools);
+        if (congestion.poolCount() == 0)
+            log.info("Data source is not a Hikari pool, admission control adapts on latency only");
+        return congestion;
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter readLimiter(MeterRegistry meterRegistry, PoolCongestion poolCongestion,
+                                                  @Value("${employees.admission.read.initial-limit:50}") int initialLimit,
+                                                  @Value("${employees.admission.read.min-limit:4}") int minLimit,
+                                                  @Value("${employees.admission.read.max-limit:400}") int maxLimit,
+                                                  @Value("${employees.admission.read.target-latency:100ms}") Duration targetLatency,
+                                                  @Value("${employees.admission.backoff-ratio:0.9}") double backoffRatio) {
+        return new AdaptiveConcurrencyLimiter("read", initialLimit, minLimit, maxLimit, targetLatency, backoffRatio,
+                poolCongestion, meterRegistry);
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter writeLimiter(MeterRegistry meterRegistry, PoolCongestion poolCongestion,
+                                                   @Value("${employees.admission.write.initial-limit:10}") int initialLimit,
+                                                   @Value("${employees.admission.write.min-limit:2}") int minLimit,
+                                                   @Value("${employees.admission.write.max-limit:100}") int maxLimit,
+                                                   @Value("${employees.admission.write.target-latency:250ms}") Duration targetLatency,
+                                                   @Value("${employees.admission.backoff-ratio:0.9}") double backoffRatio) {
+        return new AdaptiveConcurrencyLimiter("write", initialLimit, minLimit, maxLimit, targetLatency, backoffRatio,
+                poolCongestion, meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(AdaptiveConcurrencyLimiter readLimiter,
+                                                                                 AdaptiveConcurrencyLimiter writeLimiter,
+                                                                                 ObjectMapper objectMapper,
+                                                                                 @Value("${employees.admission.retry-after:1s}") Duration retryAfter,
+                                                                                 @Value("${employees.admission.excluded-paths:/api/employees/export,/api/employees/changes}") List<String> excludedPaths) {
+        AdmissionControlFilter filter = new AdmissionControlFilter(readLimiter, writeLimiter, objectMapper,
+                Math.max(1, retryAfter.toSeconds()), excludedPaths);
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        // first, so shed requests cost nothing downstream
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+}
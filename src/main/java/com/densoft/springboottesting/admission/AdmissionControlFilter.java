@@ -0,0 +1,76 @@
+package com.densoft.springboottesting.admission;
+
+import com.densoft.springboottesting.exception.ErrorDetails;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Sheds load before it queues on the connection pool. Reads and writes are admitted against separate
+ * {@link AdaptiveConcurrencyLimiter}s, so a burst of slow writes cannot starve reads and the other way round.
+ * Requests over the limit get an immediate 429 with {@code Retry-After}, instead of waiting for a connection until
+ * they time out. Streaming endpoints are excluded: a response that lasts as long as the client keeps reading says
+ * nothing about database load, and would only drive the read limit down for everyone else.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final AdaptiveConcurrencyLimiter readLimiter;
+    private final AdaptiveConcurrencyLimiter writeLimiter;
+    private final ObjectMapper objectMapper;
+    private final long retryAfterSeconds;
+    private final List<String> excludedPaths;
+
+    public AdmissionControlFilter(AdaptiveConcurrencyLimiter readLimiter, AdaptiveConcurrencyLimiter writeLimiter,
+                                  ObjectMapper objectMapper, long retryAfterSeconds, List<String> excludedPaths) {
+        this.readLimiter = readLimiter;
+        this.writeLimiter = writeLimiter;
+        this.objectMapper = objectMapper;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.excludedPaths = excludedPaths.stream().map(String::trim).filter(path -> !path.isEmpty()).toList();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String excluded : excludedPaths)
+            if (path.equals(excluded) || path.startsWith(excluded + "/"))
+                return true;
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean read = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+        AdaptiveConcurrencyLimiter limiter = read ? readLimiter : writeLimiter;
+        if (!limiter.tryAcquire()) {
+            reject(request, response);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - start);
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorDetails(Instant.now(), "Server is busy, retry later", request.getRequestURI()));
+    }
+}
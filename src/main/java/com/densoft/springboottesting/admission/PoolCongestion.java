@@ -0,0 +1,58 @@
+package com.densoft.springboottesting.admission;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Congestion signal for {@link AdaptiveConcurrencyLimiter}: true while any Hikari pool has threads waiting for a
+ * connection, which means the database rather than the web tier is the bottleneck. With replicas or shards there is
+ * one pool per database, and a queue on any of them counts.
+ */
+public class PoolCongestion implements BooleanSupplier {
+
+    private final List<HikariDataSource> pools;
+
+    PoolCongestion(List<HikariDataSource> pools) {
+        this.pools = List.copyOf(pools);
+    }
+
+    /**
+     * Keeps the data sources that are, or wrap, a Hikari pool and ignores the rest.
+     */
+    public static PoolCongestion of(List<DataSource> dataSources) {
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (DataSource dataSource : dataSources) {
+            if (dataSource instanceof HikariDataSource hikari) {
+                pools.add(hikari);
+                continue;
+            }
+            try {
+                if (dataSource.isWrapperFor(HikariDataSource.class))
+                    pools.add(dataSource.unwrap(HikariDataSource.class));
+            } catch (SQLException ignored) {
+            }
+        }
+        return new PoolCongestion(pools);
+    }
+
+    public int poolCount() {
+        return pools.size();
+    }
+
+    @Override
+    public boolean getAsBoolean() {
+        for (HikariDataSource pool : pools) {
+            // null until the pool has been started by its first connection
+            HikariPoolMXBean mxBean = pool.getHikariPoolMXBean();
+            if (mxBean != null && mxBean.getThreadsAwaitingConnection() > 0)
+                return true;
+        }
+        return false;
+    }
+}
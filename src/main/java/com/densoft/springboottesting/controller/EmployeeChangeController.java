@@ -0,0 +1,26 @@
+package com.densoft.springboottesting.controller;
+
+import com.densoft.springboottesting.service.EmployeeChangeFeed;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/employees/changes")
+public class EmployeeChangeController {
+
+    private final EmployeeChangeFeed employeeChangeFeed;
+
+    public EmployeeChangeController(EmployeeChangeFeed employeeChangeFeed) {
+        this.employeeChangeFeed = employeeChangeFeed;
+    }
+
+    // EventSource sends Last-Event-ID by itself when it reconnects
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return employeeChangeFeed.subscribe(lastEventId);
+    }
+}
@@ -1,21 +1,45 @@
 package com.densoft.springboottesting.controller;
 
+import com.densoft.springboottesting.dto.BulkDeleteResult;
+import com.densoft.springboottesting.dto.EmployeeBatch;
+import com.densoft.springboottesting.dto.EmployeeBatchResult;
+import com.densoft.springboottesting.dto.EmployeePage;
+import com.densoft.springboottesting.dto.EmployeePatch;
+import com.densoft.springboottesting.dto.EmployeeView;
+import com.densoft.springboottesting.exception.PreconditionFailedException;
 import com.densoft.springboottesting.model.Employee;
 import com.densoft.springboottesting.service.EmployeeService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/employees")
 public class EmployeeController {
 
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
     private final EmployeeService employeeService;
+    private final ObjectMapper objectMapper;
 
-    public EmployeeController(EmployeeService employeeService) {
+    public EmployeeController(EmployeeService employeeService, ObjectMapper objectMapper) {
         this.employeeService = employeeService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -24,32 +48,172 @@ public class EmployeeController {
         return employeeService.saveEmployee(employee);
     }
 
+    @PostMapping("/batch")
+    public List<EmployeeBatchResult> createEmployees(@RequestBody List<Employee> employees) {
+        return employeeService.saveEmployees(employees);
+    }
+
     @GetMapping
-    public List<Employee> getAllEmployees() {
-        return employeeService.getAllEmployees();
+    public ResponseEntity<EmployeePage> getAllEmployees(@RequestParam(value = "after", defaultValue = "0") long after,
+                                                        @RequestParam(value = "limit", defaultValue = "" + EmployeeService.DEFAULT_PAGE_SIZE) int limit) {
+        EmployeePage page = employeeService.getEmployeePage(after, limit);
+        // a matching If-None-Match turns this into a 304 before the page is serialized
+        return ResponseEntity.ok().eTag(etag(page)).body(page);
+    }
+
+    @GetMapping(params = "ids")
+    public EmployeeBatch getEmployeesByIds(@RequestParam("ids") List<Long> ids) {
+        return employeeService.getEmployeesByIds(ids);
+    }
+
+    @GetMapping(params = {"firstName", "lastName"})
+    public List<EmployeeView> getEmployeesByNames(@RequestParam("firstName") String firstName,
+                                                  @RequestParam("lastName") String lastName) {
+        return employeeService.getEmployeesByNames(firstName, lastName);
+    }
+
+    @GetMapping("/search")
+    public List<EmployeeView> searchEmployees(@RequestParam("q") String query,
+                                              @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return employeeService.searchEmployees(query, limit);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportEmployeesAsNdjson(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        try (Writer writer = exportWriter(response)) {
+            employeeService.exportEmployees(employee -> {
+                try {
+                    writer.write(objectMapper.writeValueAsString(employee));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    @GetMapping(value = "/export", produces = TEXT_CSV_VALUE)
+    public void exportEmployeesAsCsv(HttpServletResponse response) throws IOException {
+        response.setContentType(TEXT_CSV_VALUE);
+        try (Writer writer = exportWriter(response)) {
+            writer.write("id,firstName,lastName,email\n");
+            employeeService.exportEmployees(employee -> {
+                try {
+                    writer.write(employee.id() + "," + csv(employee.firstName()) + ","
+                            + csv(employee.lastName()) + "," + csv(employee.email()) + "\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private static Writer exportWriter(HttpServletResponse response) throws IOException {
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        return new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+    }
+
+    private static String csv(String value) {
+        if (value == null)
+            return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0)
+            return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Employee> getEmployeeById(@PathVariable("id") long id) {
-        return employeeService.getEmployeeById(id).map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    public ResponseEntity<EmployeeView> getEmployeeById(@PathVariable("id") long id, WebRequest webRequest) {
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            // revalidation uses the cached view's version, or reads the version column only; nothing is serialized
+            Optional<Long> version = employeeService.getEmployeeVersion(id);
+            if (version.isPresent() && webRequest.checkNotModified(etag(version.get())))
+                return null;
+        }
+        return employeeService.getEmployeeById(id)
+                .map(employee -> ResponseEntity.ok().eTag(etag(employee.version())).body(employee))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Employee> updateEmployee(@PathVariable("id") long id, @RequestBody Employee employee) {
+    public ResponseEntity<EmployeeView> updateEmployee(@PathVariable("id") long id, @RequestBody Employee employee,
+                                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null && !ifMatch.trim().equals("*")) {
+            long version = version(ifMatch);
+            try {
+                return employeeService.replaceEmployee(id, version, employee)
+                        .map(updatedEmployee -> ResponseEntity.ok().eTag(etag(updatedEmployee.version())).body(updatedEmployee))
+                        .orElseGet(() -> ResponseEntity.notFound().build());
+            } catch (OptimisticLockingFailureException e) {
+                throw new PreconditionFailedException("Employee has changed since ETag " + ifMatch.trim() + " was issued", e);
+            }
+        }
         return employeeService.getEmployeeById(id)
                 .map(savedEmployee -> {
-                    savedEmployee.setFirstName(employee.getFirstName());
-                    savedEmployee.setLastName(employee.getLastName());
-                    savedEmployee.setEmail(employee.getEmail());
+                    Employee changedEmployee = Employee.builder()
+                            .id(savedEmployee.id())
+                            .firstName(employee.getFirstName())
+                            .lastName(employee.getLastName())
+                            .email(employee.getEmail())
+                            .version(savedEmployee.version())
+                            .build();
 
-                    Employee updatedEmployee = employeeService.updateEmployee(savedEmployee);
-                    return new ResponseEntity<>(updatedEmployee, HttpStatus.OK);
+                    EmployeeView updatedEmployee = EmployeeView.of(employeeService.updateEmployee(changedEmployee));
+                    return ResponseEntity.ok().eTag(etag(updatedEmployee.version())).body(updatedEmployee);
                 }).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    // strong validator: the version is bumped on every write, so an equal version means an identical body
+    private static String etag(Long version) {
+        return "\"" + (version != null ? version : 0L) + "\"";
+    }
+
+    private static String etag(EmployeePage page) {
+        long hash = mix(page.nextCursor() != null ? page.nextCursor() : -1L);
+        for (EmployeeView employee : page.content()) {
+            hash = mix(hash ^ employee.id());
+            hash = mix(hash ^ (employee.version() != null ? employee.version() : 0L));
+        }
+        return "\"" + Long.toHexString(hash) + "\"";
+    }
+
+    private static long mix(long h) {
+        h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+        h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+
+    private static long version(String ifMatch) {
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.charAt(0) == '"' && tag.charAt(tag.length() - 1) == '"') {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        throw new PreconditionFailedException("If-Match must be a single strong ETag returned by GET /api/employees/{id}");
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patchEmployee(@PathVariable("id") long id, @RequestBody EmployeePatch patch) {
+        if (!employeeService.patchEmployee(id, patch))
+            return ResponseEntity.notFound().build();
+        return ResponseEntity.noContent().build();
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<String> deleteEmployee(@PathVariable("id") long id) {
         employeeService.deleteEmployee(id);
         return new ResponseEntity<>("Deleted successfully", HttpStatus.OK);
     }
+
+    @DeleteMapping(params = "ids")
+    public BulkDeleteResult deleteEmployees(@RequestParam("ids") List<Long> ids) {
+        return new BulkDeleteResult(ids.size(), employeeService.deleteEmployees(ids));
+    }
+
+    @DeleteMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BulkDeleteResult deleteEmployeesFromBody(@RequestBody List<Long> ids) {
+        return new BulkDeleteResult(ids.size(), employeeService.deleteEmployees(ids));
+    }
 }
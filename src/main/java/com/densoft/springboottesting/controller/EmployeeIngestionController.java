@@ -0,0 +1,36 @@
+package com.densoft.springboottesting.controller;
+
+import com.densoft.springboottesting.dto.IngestionStatus;
+import com.densoft.springboottesting.model.Employee;
+import com.densoft.springboottesting.service.EmployeeIngestionQueue;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/employees/ingest")
+@ConditionalOnProperty(name = "employees.ingestion.enabled", havingValue = "true")
+public class EmployeeIngestionController {
+
+    private final EmployeeIngestionQueue employeeIngestionQueue;
+
+    public EmployeeIngestionController(EmployeeIngestionQueue employeeIngestionQueue) {
+        this.employeeIngestionQueue = employeeIngestionQueue;
+    }
+
+    @PostMapping
+    public ResponseEntity<IngestionStatus> ingestEmployee(@RequestBody Employee employee) {
+        IngestionStatus status = employeeIngestionQueue.submit(employee);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest().path("/{trackingId}").build(status.trackingId()))
+                .body(status);
+    }
+
+    @GetMapping("/{trackingId}")
+    public ResponseEntity<IngestionStatus> getIngestionStatus(@PathVariable("trackingId") UUID trackingId) {
+        return employeeIngestionQueue.status(trackingId).map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
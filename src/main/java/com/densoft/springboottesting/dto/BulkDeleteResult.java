@@ -0,0 +1,4 @@
+package com.densoft.springboottesting.dto;
+
+public record BulkDeleteResult(int requested, int deleted) {
+}
@@ -0,0 +1,9 @@
+package com.densoft.springboottesting.dto;
+
+import java.util.List;
+
+/**
+ * Employees found for a list of ids, in the order requested, plus the requested ids that do not exist.
+ */
+public record EmployeeBatch(List<EmployeeView> employees, List<Long> missingIds) {
+}
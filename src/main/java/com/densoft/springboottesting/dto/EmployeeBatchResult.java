@@ -0,0 +1,21 @@
+package com.densoft.springboottesting.dto;
+
+import com.densoft.springboottesting.model.Employee;
+
+/**
+ * Outcome of one item of a bulk create, {@code index} being its position in the request.
+ */
+public record EmployeeBatchResult(int index, Status status, Employee employee, String error) {
+
+    public enum Status {
+        CREATED, FAILED
+    }
+
+    public static EmployeeBatchResult created(int index, Employee employee) {
+        return new EmployeeBatchResult(index, Status.CREATED, employee, null);
+    }
+
+    public static EmployeeBatchResult failed(int index, Employee employee, String error) {
+        return new EmployeeBatchResult(index, Status.FAILED, employee, error);
+    }
+}
@@ -0,0 +1,14 @@
+package com.densoft.springboottesting.dto;
+
+import java.time.Instant;
+
+/**
+ * One committed write, as sent on {@code GET /api/employees/changes}. {@code sequence} increases by one per change
+ * and is also the SSE event id. {@code employee} is the state after the write, and {@code null} for deletes.
+ */
+public record EmployeeChange(long sequence, Type type, long id, EmployeeView employee, Instant timestamp) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+}
@@ -0,0 +1,10 @@
+package com.densoft.springboottesting.dto;
+
+import java.util.List;
+
+/**
+ * One keyset page of employees ordered by id. {@code nextCursor} is the id to pass as {@code after}
+ * to fetch the following page, or {@code null} when this is the last page.
+ */
+public record EmployeePage(List<EmployeeView> content, Long nextCursor) {
+}
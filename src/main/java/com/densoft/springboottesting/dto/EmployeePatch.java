@@ -0,0 +1,7 @@
+package com.densoft.springboottesting.dto;
+
+/**
+ * Partial update of an employee. Null fields are left unchanged; {@code version} must match the stored version.
+ */
+public record EmployeePatch(String firstName, String lastName, String email, Long version) {
+}
@@ -0,0 +1,15 @@
+package com.densoft.springboottesting.dto;
+
+import com.densoft.springboottesting.model.Employee;
+
+/**
+ * Read-only employee returned by the GET endpoints. Selected with a JPQL constructor expression, so no entity
+ * is instantiated, registered in the persistence context or snapshotted for dirty checking. Serializes to the
+ * same JSON as {@link Employee}.
+ */
+public record EmployeeView(long id, String firstName, String lastName, String email, Long version) {
+
+    public static EmployeeView of(Employee employee) {
+        return new EmployeeView(employee.getId(), employee.getFirstName(), employee.getLastName(), employee.getEmail(), employee.getVersion());
+    }
+}
@@ -0,0 +1,26 @@
+package com.densoft.springboottesting.dto;
+
+import java.util.UUID;
+
+/**
+ * State of one asynchronous create. {@code employeeId} is set once the employee is stored, {@code error}
+ * once it is rejected.
+ */
+public record IngestionStatus(UUID trackingId, State state, Long employeeId, String error) {
+
+    public enum State {
+        QUEUED, CREATED, FAILED
+    }
+
+    public static IngestionStatus queued(UUID trackingId) {
+        return new IngestionStatus(trackingId, State.QUEUED, null, null);
+    }
+
+    public static IngestionStatus created(UUID trackingId, long employeeId) {
+        return new IngestionStatus(trackingId, State.CREATED, employeeId, null);
+    }
+
+    public static IngestionStatus failed(UUID trackingId, String error) {
+        return new IngestionStatus(trackingId, State.FAILED, null, error);
+    }
+}
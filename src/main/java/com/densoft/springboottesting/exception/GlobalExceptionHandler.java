@@ -0,0 +1,58 @@
+package com.densoft.springboottesting.exception;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Instant;
+
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public GlobalExceptionHandler(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @ExceptionHandler(APIException.class)
+    public ResponseEntity<ErrorDetails> handleAPIException(APIException exception, HttpServletRequest request) {
+        return error(HttpStatus.BAD_REQUEST, exception, exception.getMessage(), request);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorDetails> handleOptimisticLockingFailure(OptimisticLockingFailureException exception, HttpServletRequest request) {
+        return error(HttpStatus.CONFLICT, exception, "Employee was modified concurrently, reload it and retry", request);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorDetails> handlePreconditionFailed(PreconditionFailedException exception, HttpServletRequest request) {
+        return error(HttpStatus.PRECONDITION_FAILED, exception, exception.getMessage(), request);
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorDetails> handleTooManyRequests(TooManyRequestsException exception, HttpServletRequest request) {
+        ResponseEntity<ErrorDetails> response = error(HttpStatus.TOO_MANY_REQUESTS, exception, exception.getMessage(), request);
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+                .body(response.getBody());
+    }
+
+    private ResponseEntity<ErrorDetails> error(HttpStatus status, Exception exception, String message, HttpServletRequest request) {
+        // tagged by route template rather than raw URI to keep the tag cardinality bounded
+        Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        meterRegistry.ifAvailable(registry -> registry.counter("employees.api.exceptions",
+                "exception", exception.getClass().getSimpleName(),
+                "status", String.valueOf(status.value()),
+                "method", request.getMethod(),
+                "uri", uri != null ? uri.toString() : "UNKNOWN").increment());
+        return new ResponseEntity<>(new ErrorDetails(Instant.now(), message, request.getRequestURI()), status);
+    }
+}
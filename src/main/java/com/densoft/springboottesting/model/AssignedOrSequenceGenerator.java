@@ -0,0 +1,42 @@
+package com.densoft.springboottesting.model;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import java.util.IdentityHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Sequence generator that hands out ids the application assigned up front, but only inside
+ * {@link #assigningIds}. Sharding assigns globally unique ids, which must not be replaced by the per-database
+ * sequence. The ids are passed beside the entities rather than set on them: Hibernate takes a new entity with a
+ * non-zero id and no version for a detached one and refuses to persist it. Everywhere else it behaves like a
+ * plain sequence.
+ */
+public class AssignedOrSequenceGenerator extends SequenceStyleGenerator {
+
+    private static final ThreadLocal<IdentityHashMap<Object, Long>> ASSIGNED = new ThreadLocal<>();
+
+    /**
+     * Runs {@code work} with the ids of the given entities, keyed by identity, assigned on the current thread.
+     */
+    public static <T> T assigningIds(IdentityHashMap<Object, Long> ids, Supplier<T> work) {
+        IdentityHashMap<Object, Long> previous = ASSIGNED.get();
+        ASSIGNED.set(ids);
+        try {
+            return work.get();
+        } finally {
+            if (previous != null)
+                ASSIGNED.set(previous);
+            else
+                ASSIGNED.remove();
+        }
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        IdentityHashMap<Object, Long> assigned = ASSIGNED.get();
+        Long id = assigned != null ? assigned.get(object) : null;
+        return id != null ? id : super.generate(session, object);
+    }
+}
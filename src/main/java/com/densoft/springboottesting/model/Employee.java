@@ -2,6 +2,11 @@ package com.densoft.springboottesting.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 @Setter
 @Getter
@@ -10,10 +15,19 @@ import lombok.*;
 @Builder
 
 @Entity
-@Table(name = "employees")
+@Cacheable
+@Cache(region = "employee", usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "employees", uniqueConstraints = @UniqueConstraint(name = Employee.EMAIL_UNIQUE_CONSTRAINT, columnNames = "email"))
 public class Employee {
+    public static final String EMAIL_UNIQUE_CONSTRAINT = "uk_employees_email";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // pooled sequence instead of IDENTITY so Hibernate can assign ids up front and batch the INSERTs;
+    // ids assigned by ShardedEmployeeService are handed to the generator, a client-supplied id is dropped on create
+    @GeneratedValue(generator = "employees_seq")
+    @GenericGenerator(name = "employees_seq", type = AssignedOrSequenceGenerator.class, parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "employees_seq"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50")})
     private long id;
     @Column(name = "first_name", nullable = false)
     private String firstName;
@@ -21,4 +35,6 @@ public class Employee {
     private String lastName;
     @Column(nullable = false)
     private String email;
+    @Version
+    private Long version;
 }
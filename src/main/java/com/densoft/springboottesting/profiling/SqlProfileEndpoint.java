@@ -0,0 +1,32 @@
+package com.densoft.springboottesting.profiling;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/sqlprofile}: the sampled statements with the highest total time; DELETE resets them.
+ */
+@Endpoint(id = "sqlprofile")
+public class SqlProfileEndpoint {
+
+    private static final int TOP_STATEMENTS = 50;
+
+    private final SqlProfiler sqlProfiler;
+
+    public SqlProfileEndpoint(SqlProfiler sqlProfiler) {
+        this.sqlProfiler = sqlProfiler;
+    }
+
+    @ReadOperation
+    public List<SqlProfiler.StatementSnapshot> statements() {
+        return sqlProfiler.snapshot(TOP_STATEMENTS);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        sqlProfiler.reset();
+    }
+}
@@ -0,0 +1,222 @@
+package com.densoft.springboottesting.profiling;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Statement-level profiler fed by datasource-proxy. Every statement is timed into
+ * {@code employees.sql.statements} and counted against the current HTTP request; statements over the
+ * latency threshold and requests over the statement budget are logged. Per-SQL aggregates (executions,
+ * time, rows affected) are only collected for sampled requests so the profiler can stay on in production.
+ */
+@Slf4j
+public class SqlProfiler implements QueryExecutionListener {
+
+    private static final ThreadLocal<RequestProfile> CURRENT = new ThreadLocal<>();
+    // start of the statement in flight on this thread; JDBC calls do not overlap on one thread
+    private static final ThreadLocal<long[]> STARTED = ThreadLocal.withInitial(() -> new long[1]);
+    private static final String[] TYPES = {"select", "insert", "update", "delete", "call", "other"};
+
+    private final double sampleRate;
+    private final int statementBudget;
+    private final long slowQueryThresholdNanos;
+    private final int maxTrackedStatements;
+    private final LongSupplier nanoClock;
+    private final Map<String, StatementStats> statements = new ConcurrentHashMap<>();
+    // one per type, batch and success combination, indexed by timerIndex, so no lookup happens per statement
+    private final Timer[] timers = new Timer[TYPES.length * 4];
+    private final Counter slowStatements;
+    private final Counter budgetExceeded;
+    private final DistributionSummary statementsPerRequest;
+
+    public SqlProfiler(MeterRegistry meterRegistry, double sampleRate, int statementBudget,
+                       Duration slowQueryThreshold, int maxTrackedStatements) {
+        this(meterRegistry, sampleRate, statementBudget, slowQueryThreshold, maxTrackedStatements, System::nanoTime);
+    }
+
+    SqlProfiler(MeterRegistry meterRegistry, double sampleRate, int statementBudget,
+                Duration slowQueryThreshold, int maxTrackedStatements, LongSupplier nanoClock) {
+        this.sampleRate = sampleRate;
+        this.statementBudget = statementBudget;
+        this.slowQueryThresholdNanos = slowQueryThreshold.toNanos();
+        this.maxTrackedStatements = maxTrackedStatements;
+        this.nanoClock = nanoClock;
+        for (int type = 0; type < TYPES.length; type++) {
+            for (boolean batch : new boolean[]{false, true}) {
+                for (boolean success : new boolean[]{false, true}) {
+                    timers[timerIndex(type, batch, success)] = Timer.builder("employees.sql.statements")
+                            .description("JDBC statement execution time")
+                            .tag("type", TYPES[type])
+                            .tag("batch", String.valueOf(batch))
+                            .tag("success", String.valueOf(success))
+                            .register(meterRegistry);
+                }
+            }
+        }
+        this.slowStatements = Counter.builder("employees.sql.slow")
+                .description("Statements slower than the slow query threshold")
+                .register(meterRegistry);
+        this.budgetExceeded = Counter.builder("employees.sql.budget.exceeded")
+                .description("HTTP requests that issued more statements than the statement budget")
+                .register(meterRegistry);
+        this.statementsPerRequest = DistributionSummary.builder("employees.sql.statements.per.request")
+                .description("JDBC statements issued while serving one HTTP request")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public void beginRequest() {
+        CURRENT.set(new RequestProfile(ThreadLocalRandom.current().nextDouble() < sampleRate));
+    }
+
+    public void endRequest(String method, String uri) {
+        RequestProfile profile = CURRENT.get();
+        CURRENT.remove();
+        if (profile == null)
+            return;
+        statementsPerRequest.record(profile.statements);
+        if (profile.statements > statementBudget) {
+            budgetExceeded.increment();
+            log.warn("{} {} issued {} SQL statements, budget is {}", method, uri, profile.statements, statementBudget);
+        }
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // ExecutionInfo.getElapsedTime() is whole milliseconds, which records most statements as zero
+        STARTED.get()[0] = nanoClock.getAsLong();
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsed = nanoClock.getAsLong() - STARTED.get()[0];
+        RequestProfile profile = CURRENT.get();
+        boolean sampled;
+        if (profile != null) {
+            profile.statements++;
+            sampled = profile.sampled;
+        } else {
+            sampled = ThreadLocalRandom.current().nextDouble() < sampleRate;
+        }
+
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+        timers[timerIndex(statementType(sql), execInfo.isBatch(), execInfo.isSuccess())].record(elapsed, TimeUnit.NANOSECONDS);
+
+        if (elapsed >= slowQueryThresholdNanos) {
+            slowStatements.increment();
+            log.warn("Slow SQL ({} ms): {}", TimeUnit.NANOSECONDS.toMillis(elapsed), sql);
+        }
+
+        if (!sampled)
+            return;
+        StatementStats stats = statements.get(sql);
+        if (stats == null) {
+            if (statements.size() >= maxTrackedStatements)
+                return;
+            stats = statements.computeIfAbsent(sql, key -> new StatementStats());
+        }
+        stats.record(elapsed, updateCount(execInfo.getResult()));
+    }
+
+    public List<StatementSnapshot> snapshot(int limit) {
+        return statements.entrySet().stream()
+                .map(entry -> entry.getValue().snapshot(entry.getKey()))
+                .sorted(Comparator.comparingDouble(StatementSnapshot::totalMillis).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public void reset() {
+        statements.clear();
+    }
+
+    private static int timerIndex(int type, boolean batch, boolean success) {
+        return type * 4 + (batch ? 2 : 0) + (success ? 1 : 0);
+    }
+
+    private static int statementType(String sql) {
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end)))
+            end++;
+        String keyword = trimmed.substring(0, end).toLowerCase(Locale.ROOT);
+        return switch (keyword) {
+            case "select" -> 0;
+            case "insert" -> 1;
+            case "update" -> 2;
+            case "delete" -> 3;
+            case "call" -> 4;
+            default -> 5;
+        };
+    }
+
+    private static long updateCount(Object result) {
+        if (result instanceof Integer count)
+            return Math.max(count, 0);
+        if (result instanceof int[] counts) {
+            long total = 0;
+            for (int count : counts)
+                total += Math.max(count, 0);
+            return total;
+        }
+        return 0;
+    }
+
+    private static final class RequestProfile {
+        private final boolean sampled;
+        private int statements;
+
+        private RequestProfile(boolean sampled) {
+            this.sampled = sampled;
+        }
+    }
+
+    private static final class StatementStats {
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder rows = new LongAdder();
+
+        private void record(long elapsedNanos, long affectedRows) {
+            executions.increment();
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+            rows.add(affectedRows);
+        }
+
+        private StatementSnapshot snapshot(String sql) {
+            long count = executions.sum();
+            double total = millis(totalNanos.sum());
+            return new StatementSnapshot(sql, count, total, millis(maxNanos.get()), count == 0 ? 0 : total / count, rows.sum());
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+
+    /**
+     * Aggregated timings for one SQL string over the sampled executions. {@code rows} counts rows affected by
+     * writes; rows read by selects are not counted, since that would mean proxying every result set.
+     */
+    public record StatementSnapshot(String sql, long executions, double totalMillis, double maxMillis, double avgMillis, long rows) {
+    }
+}
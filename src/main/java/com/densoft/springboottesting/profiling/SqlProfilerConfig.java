@@ -0,0 +1,61 @@
+package com.densoft.springboottesting.profiling;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "employees.sql-profiler.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlProfilerConfig {
+
+    @Bean
+    public SqlProfiler sqlProfiler(MeterRegistry meterRegistry,
+                                   @Value("${employees.sql-profiler.sample-rate:0.1}") double sampleRate,
+                                   @Value("${employees.sql-profiler.statement-budget:20}") int statementBudget,
+                                   @Value("${employees.sql-profiler.slow-query-threshold:200ms}") Duration slowQueryThreshold,
+                                   @Value("${employees.sql-profiler.max-tracked-statements:500}") int maxTrackedStatements) {
+        return new SqlProfiler(meterRegistry, sampleRate, statementBudget, slowQueryThreshold, maxTrackedStatements);
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlProfilingFilter> sqlProfilingFilter(SqlProfiler sqlProfiler) {
+        FilterRegistrationBean<SqlProfilingFilter> registration = new FilterRegistrationBean<>(new SqlProfilingFilter(sqlProfiler));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    @Bean
+    public SqlProfileEndpoint sqlProfileEndpoint(SqlProfiler sqlProfiler) {
+        return new SqlProfileEndpoint(sqlProfiler);
+    }
+
+    // static and lazily resolving the profiler so that wrapping data sources does not initialize beans early
+    @Bean
+    public static BeanPostProcessor sqlProfilingDataSourcePostProcessor(ObjectProvider<SqlProfiler> sqlProfiler) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource || bean instanceof AbstractRoutingDataSource)
+                    return bean;
+                // statement callbacks only: proxying result sets would add a reflective call to every row read
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(sqlProfiler.getObject())
+                        .build();
+            }
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package com.densoft.springboottesting.profiling;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Scopes {@link SqlProfiler} statement counting to one HTTP request.
+ */
+public class SqlProfilingFilter extends OncePerRequestFilter {
+
+    private final SqlProfiler sqlProfiler;
+
+    public SqlProfilingFilter(SqlProfiler sqlProfiler) {
+        this.sqlProfiler = sqlProfiler;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        sqlProfiler.beginRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            sqlProfiler.endRequest(request.getMethod(), pattern != null ? pattern.toString() : request.getRequestURI());
+        }
+    }
+}
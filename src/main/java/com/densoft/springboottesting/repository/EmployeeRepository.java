@@ -1,20 +1,110 @@
 package com.densoft.springboottesting.repository;
 
+import com.densoft.springboottesting.dto.EmployeeView;
 import com.densoft.springboottesting.model.Employee;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface EmployeeRepository extends JpaRepository<Employee, Long> {
 
     Optional<Employee> findByEmail(String email);
 
+    @Query("SELECT e.email FROM Employee e WHERE e.email IN :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT e.email FROM Employee e")
+    Stream<String> streamAllEmails();
+
+    // applies only the non-null fields in one statement; returns 0 when the id is unknown or the version is stale
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Employee e SET e.firstName = COALESCE(:firstName, e.firstName), " +
+            "e.lastName = COALESCE(:lastName, e.lastName), " +
+            "e.email = COALESCE(:email, e.email), " +
+            "e.version = e.version + 1 " +
+            "WHERE e.id = :id AND e.version = :version")
+    int patchById(@Param("id") long id, @Param("version") long version, @Param("firstName") String firstName,
+                  @Param("lastName") String lastName, @Param("email") String email);
+
+    // full replacement guarded by the version the client last saw; returns 0 when the id is unknown or the version is stale
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Employee e SET e.firstName = :firstName, e.lastName = :lastName, e.email = :email, " +
+            "e.version = e.version + 1 " +
+            "WHERE e.id = :id AND e.version = :version")
+    int replaceById(@Param("id") long id, @Param("version") long version, @Param("firstName") String firstName,
+                    @Param("lastName") String lastName, @Param("email") String email);
+
+    // unlike deleteById it does not load the entity first, and reports whether a row was there; returns 0 when the id is unknown
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Employee e WHERE e.id = :id")
+    int deleteByIdReturningCount(@Param("id") long id);
+
+    // set-based delete, unlike deleteAllById it does not load each entity first
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Employee e WHERE e.id IN :ids")
+    int deleteInBulkByIds(@Param("ids") Collection<Long> ids);
+
+    // read paths select EmployeeView through constructor expressions: no entities, no persistence context entries.
+    // Lookups by id are cached as views by the employees Caffeine cache in front of the service, so only the
+    // page and name queries below also go through the query cache
+    @Query("SELECT new com.densoft.springboottesting.dto.EmployeeView(e.id, e.firstName, e.lastName, e.email, e.version) " +
+            "FROM Employee e WHERE e.id = :id")
+    Optional<EmployeeView> findViewById(@Param("id") long id);
+
+    // conditional GET revalidation reads only this column
+    @Query("SELECT e.version FROM Employee e WHERE e.id = :id")
+    Optional<Long> findVersionById(@Param("id") long id);
+
+    @Query("SELECT new com.densoft.springboottesting.dto.EmployeeView(e.id, e.firstName, e.lastName, e.email, e.version) " +
+            "FROM Employee e WHERE e.id IN :ids")
+    List<EmployeeView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.densoft.springboottesting.dto.EmployeeView(e.id, e.firstName, e.lastName, e.email, e.version) " +
+            "FROM Employee e ORDER BY e.id")
+    List<EmployeeView> findAllViews();
+
+    // keyset page: seeks on the primary key index, so cost does not grow with depth; the query cache holds
+    // the projected rows and hibernate invalidates them whenever the employees table is written
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.densoft.springboottesting.dto.EmployeeView(e.id, e.firstName, e.lastName, e.email, e.version) " +
+            "FROM Employee e WHERE e.id > :after ORDER BY e.id")
+    List<EmployeeView> findViewsAfter(@Param("after") long after, Pageable pageable);
+
+    // must be consumed inside a transaction and closed; rows are pulled from the cursor in fetch-size chunks
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.densoft.springboottesting.dto.EmployeeView(e.id, e.firstName, e.lastName, e.email, e.version) " +
+            "FROM Employee e ORDER BY e.id")
+    Stream<EmployeeView> streamAllViews();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.densoft.springboottesting.dto.EmployeeView(e.id, e.firstName, e.lastName, e.email, e.version) " +
+            "FROM Employee e WHERE e.firstName = :firstName AND e.lastName = :lastName")
+    List<EmployeeView> findViewsByBothNames(@Param("firstName") String firstName, @Param("lastName") String lastName);
+
+    // JPQL lookups go through the query cache; hibernate invalidates it whenever the employees table is written
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT e FROM Employee e WHERE e.firstName = ?1 AND e.lastName = ?2")
     Employee findByBothNames(String firstName, String lastName);
 
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT e FROM Employee e WHERE e.firstName = :firstName AND e.lastName = :secondName")
     Employee findByBothNamesNamedParams(@Param("firstName") String firstName, @Param("secondName") String lastName);
 
@@ -0,0 +1,66 @@
+package com.densoft.springboottesting.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured data source with a primary pool plus one pool per replica URL, routed by
+ * {@link ReplicaRoutingDataSource}. Each pool publishes Hikari metrics under its own pool name.
+ */
+@Configuration
+@ConditionalOnProperty(name = "employees.datasource.replicas.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties properties,
+                                                             MeterRegistry meterRegistry,
+                                                             @Value("${employees.datasource.replicas.urls}") List<String> replicaUrls,
+                                                             @Value("${employees.datasource.replicas.health-check-interval:5s}") Duration healthCheckInterval) {
+        HikariDataSource primary = pool(properties, properties.determineUrl(), "primary", meterRegistry);
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++)
+            replicas.add(pool(properties, replicaUrls.get(i).trim(), "replica-" + i, meterRegistry));
+        return new ReplicaRoutingDataSource(primary, replicas, healthCheckInterval, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${employees.datasource.replicas.read-your-writes-window:5s}") Duration window) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(new ReadYourWritesFilter(window));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, String url, String name, MeterRegistry meterRegistry) {
+        // the no-arg constructor starts the pool lazily, so an unreachable replica does not fail startup
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl(url);
+        pool.setUsername(properties.determineUsername());
+        pool.setPassword(properties.determinePassword());
+        pool.setDriverClassName(properties.determineDriverClassName());
+        pool.setPoolName(name);
+        pool.setMetricRegistry(meterRegistry);
+        return pool;
+    }
+}
@@ -0,0 +1,179 @@
+package com.densoft.springboottesting.routing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections for read-only transactions to a healthy replica, chosen round robin, and everything else to
+ * the primary. Reads fall back to the primary when no replica is healthy, when a replica refuses a connection, and
+ * while {@link #requirePrimary()} is in effect for read-your-writes. Must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so the connection is fetched after the
+ * transaction's read-only flag is set.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final String PRIMARY = "primary";
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final Duration healthCheckInterval;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker;
+    private final Counter primaryReads;
+    private final Counter replicaReads;
+    private final Counter writes;
+    // indexes of replicas that passed the last health check; replaced wholesale, never mutated
+    private volatile int[] healthy;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration healthCheckInterval, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.healthCheckInterval = healthCheckInterval;
+        this.healthy = new int[0];
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < this.replicas.size(); i++)
+            targets.put(i, this.replicas.get(i));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("employees.datasource.replicas.healthy", this, routing -> routing.healthy.length)
+                .description("Replicas currently receiving read-only transactions")
+                .register(meterRegistry);
+        this.primaryReads = routed(meterRegistry, "read", PRIMARY);
+        this.replicaReads = routed(meterRegistry, "read", "replica");
+        this.writes = routed(meterRegistry, "write", PRIMARY);
+    }
+
+    private static Counter routed(MeterRegistry meterRegistry, String access, String target) {
+        return Counter.builder("employees.datasource.routed")
+                .description("Connections handed out by the replica routing data source")
+                .tag("access", access)
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    /**
+     * The primary followed by every replica.
+     */
+    public List<DataSource> targets() {
+        List<DataSource> targets = new ArrayList<>(replicas.size() + 1);
+        targets.add(primary);
+        targets.addAll(replicas);
+        return targets;
+    }
+
+    /**
+     * Routes this thread's reads to the primary until {@link #clearPrimaryRequirement()}.
+     */
+    public static void requirePrimary() {
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+    }
+
+    public static void clearPrimaryRequirement() {
+        PRIMARY_REQUIRED.remove();
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplicas();
+        long interval = healthCheckInterval.toMillis();
+        healthChecker.scheduleWithFixedDelay(this::checkReplicas, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly())
+            return PRIMARY;
+        int[] candidates = healthy;
+        if (candidates.length == 0 || Boolean.TRUE.equals(PRIMARY_REQUIRED.get()))
+            return PRIMARY;
+        return candidates[Math.floorMod(next.getAndIncrement(), candidates.length)];
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object key = determineCurrentLookupKey();
+        if (key instanceof Integer replica) {
+            try {
+                Connection connection = replicas.get(replica).getConnection();
+                replicaReads.increment();
+                return connection;
+            } catch (SQLException e) {
+                markDown(replica, e);
+            }
+        }
+        (TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? primaryReads : writes).increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    void checkReplicas() {
+        List<Integer> up = new ArrayList<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            try (Connection connection = replicas.get(i).getConnection()) {
+                if (connection.isValid(2))
+                    up.add(i);
+            } catch (SQLException | RuntimeException e) {
+                log.debug("Replica {} failed its health check", i, e);
+            }
+        }
+        int[] previous = healthy;
+        healthy = up.stream().mapToInt(Integer::intValue).toArray();
+        if (previous.length != healthy.length)
+            log.info("{} of {} replicas healthy", healthy.length, replicas.size());
+    }
+
+    private synchronized void markDown(int replica, SQLException cause) {
+        log.warn("Replica {} refused a connection, reading from the primary until it passes a health check", replica, cause);
+        int[] current = healthy;
+        int[] remaining = new int[current.length];
+        int size = 0;
+        for (int index : current)
+            if (index != replica)
+                remaining[size++] = index;
+        healthy = Arrays.copyOf(remaining, size);
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        healthChecker.shutdownNow();
+        for (DataSource replica : replicas)
+            if (replica instanceof Closeable closeable)
+                closeable.close();
+        if (primary instanceof Closeable closeable)
+            closeable.close();
+    }
+}
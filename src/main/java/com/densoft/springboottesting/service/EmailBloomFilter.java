@@ -0,0 +1,133 @@
+package com.densoft.springboottesting.service;
+
+import com.densoft.springboottesting.repository.EmployeeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Probabilistic set of stored employee emails. A negative answer is definite, so callers can skip the
+ * database existence check; a positive answer still needs the database. Entries are never removed:
+ * an email freed by an update or delete only costs one extra lookup, and the unique index on
+ * {@code employees.email} remains the source of truth.
+ */
+@Component
+public class EmailBloomFilter {
+
+    private final EmployeeRepository employeeRepository;
+    private final AtomicLongArray bits;
+    private final int numBits;
+    private final int numHashes;
+    private final Counter lookupsAvoided;
+    private final Counter lookupsPerformed;
+    // until the startup load completes every email is reported as possibly present
+    private volatile boolean ready;
+
+    public EmailBloomFilter(EmployeeRepository employeeRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${employees.email-filter.expected-insertions:1000000}") int expectedInsertions,
+                            @Value("${employees.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1)
+            throw new IllegalArgumentException("expected insertions must be positive and false positive rate in (0, 1)");
+        this.employeeRepository = employeeRepository;
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.numBits = (int) Math.min(Math.max(optimalBits, 64), Integer.MAX_VALUE - 63);
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / expectedInsertions * Math.log(2)));
+        this.bits = new AtomicLongArray((numBits + 63) >>> 6);
+        this.lookupsAvoided = Counter.builder("employees.email.filter.lookups")
+                .tag("outcome", "avoided")
+                .description("Email existence checks answered by the bloom filter without a database query")
+                .register(meterRegistry);
+        this.lookupsPerformed = Counter.builder("employees.email.filter.lookups")
+                .tag("outcome", "performed")
+                .description("Email existence checks that still needed a database query")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        try (Stream<String> emails = employeeRepository.streamAllEmails()) {
+            emails.forEach(this::put);
+        }
+        ready = true;
+    }
+
+    public void put(String email) {
+        if (email == null)
+            return;
+        long hash = hash(email);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % numBits;
+            setBit(bit);
+        }
+    }
+
+    public boolean mightContain(String email) {
+        if (!ready || email == null)
+            return true;
+        long hash = hash(email);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % numBits;
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the emails that may already be stored and records how many database lookups were avoided.
+     */
+    public Set<String> filterPossiblyExisting(Collection<String> emails) {
+        Set<String> candidates = new HashSet<>();
+        for (String email : emails) {
+            if (mightContain(email))
+                candidates.add(email);
+        }
+        lookupsAvoided.increment(emails.size() - candidates.size());
+        lookupsPerformed.increment(candidates.size());
+        return candidates;
+    }
+
+    private void setBit(int bit) {
+        int index = bit >>> 6;
+        long mask = 1L << bit;
+        long word;
+        do {
+            word = bits.get(index);
+            if ((word & mask) != 0)
+                return;
+        } while (!bits.compareAndSet(index, word, word | mask));
+    }
+
+    // 64-bit FNV-1a over the normalized email followed by the murmur3 finalizer for better bit dispersion
+    private static long hash(String email) {
+        String normalized = email.toLowerCase(Locale.ROOT);
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < normalized.length(); i++) {
+            hash ^= normalized.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
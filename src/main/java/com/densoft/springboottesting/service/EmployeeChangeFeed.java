@@ -0,0 +1,260 @@
+package com.densoft.springboottesting.service;
+
+import com.densoft.springboottesting.dto.EmployeeChange;
+import com.densoft.springboottesting.dto.EmployeeView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Stream of committed employee writes for server-sent event subscribers. Every change gets the next sequence
+ * number and is kept in a ring buffer of the most recent {@code buffer-size} changes. A subscriber that sends
+ * {@code Last-Event-ID} is first sent what it missed from the buffer. Its sender thread reads the missed changes
+ * from the ring without holding the feed's lock, and resyncs if publishing overwrites them before they are sent.
+ * <p>
+ * Publishing never waits for subscribers. Each subscriber has a bounded queue drained by its own virtual thread.
+ * When the queue is full, the subscriber is sent a {@code resync} event and disconnected. The same happens when
+ * the requested id is no longer buffered or was not issued by this process. {@code resync} carries the id to
+ * resume from after the client has reloaded the employees it tracks. Sequence numbers start from the wall clock
+ * in microseconds, so ids from before a restart are older than anything buffered and lead to a resync instead of
+ * a silent gap.
+ */
+@Slf4j
+@Component
+public class EmployeeChangeFeed implements DisposableBean {
+
+    public static final String RESYNC_EVENT = "resync";
+
+    private final AtomicReferenceArray<EmployeeChange> ring;
+    private final int subscriberQueueCapacity;
+    private final long heartbeatMillis;
+    private final long emitterTimeoutMillis;
+    private final long firstSequence;
+    private final List<Subscriber> subscribers = new ArrayList<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter published;
+    private final Counter dropped;
+    private final Counter resynced;
+    // guarded by this, like ring writes and subscribers
+    private long latest;
+
+    public EmployeeChangeFeed(MeterRegistry meterRegistry,
+                              @Value("${employees.changes.buffer-size:10000}") int bufferSize,
+                              @Value("${employees.changes.subscriber-queue-capacity:1000}") int subscriberQueueCapacity,
+                              @Value("${employees.changes.heartbeat:15s}") Duration heartbeat,
+                              @Value("${employees.changes.emitter-timeout:30m}") Duration emitterTimeout) {
+        this.ring = new AtomicReferenceArray<>(bufferSize);
+        this.subscriberQueueCapacity = subscriberQueueCapacity;
+        this.heartbeatMillis = heartbeat.toMillis();
+        this.emitterTimeoutMillis = emitterTimeout.toMillis();
+        this.firstSequence = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        this.latest = firstSequence;
+        Gauge.builder("employees.changes.subscribers", this, EmployeeChangeFeed::subscriberCount)
+                .description("Clients connected to GET /api/employees/changes")
+                .register(meterRegistry);
+        this.published = Counter.builder("employees.changes.published")
+                .description("Employee changes added to the change feed")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("employees.changes.dropped")
+                .description("Subscribers disconnected because they fell behind by more than their queue")
+                .register(meterRegistry);
+        this.resynced = Counter.builder("employees.changes.resyncs")
+                .description("Resync events sent to subscribers")
+                .register(meterRegistry);
+    }
+
+    public void created(EmployeeView employee) {
+        publish(EmployeeChange.Type.CREATED, employee.id(), employee);
+    }
+
+    public void updated(EmployeeView employee) {
+        publish(EmployeeChange.Type.UPDATED, employee.id(), employee);
+    }
+
+    public void deleted(long id) {
+        publish(EmployeeChange.Type.DELETED, id, null);
+    }
+
+    private void publish(EmployeeChange.Type type, long id, EmployeeView employee) {
+        // inside a transaction the change becomes visible, and is announced, only once it commits
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append(type, id, employee);
+                }
+            });
+        } else {
+            append(type, id, employee);
+        }
+    }
+
+    private synchronized void append(EmployeeChange.Type type, long id, EmployeeView employee) {
+        EmployeeChange change = new EmployeeChange(++latest, type, id, employee, Instant.now());
+        ring.set(slot(change.sequence()), change);
+        for (Subscriber subscriber : subscribers)
+            subscriber.offer(change);
+        published.increment();
+    }
+
+    /**
+     * Opens a stream starting after {@code lastEventId}, or with the next change when it is {@code null}.
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        return subscribe(lastEventId, new SseEmitter(emitterTimeoutMillis));
+    }
+
+    SseEmitter subscribe(Long lastEventId, SseEmitter emitter) {
+        Subscriber subscriber;
+        synchronized (this) {
+            long buffered = Math.min(latest - firstSequence, ring.length());
+            if (lastEventId == null)
+                subscriber = new Subscriber(emitter, latest, latest, false);
+            else if (lastEventId < latest - buffered || lastEventId > latest)
+                subscriber = new Subscriber(emitter, latest, latest, true);
+            else
+                subscriber = new Subscriber(emitter, lastEventId, latest, false);
+            // registered under the same lock that bounds the replay, so no change falls between replay and live;
+            // the replayed changes themselves are read from the ring by the sender, outside the lock
+            if (!subscriber.resync)
+                subscribers.add(subscriber);
+        }
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        senders.submit(subscriber::run);
+        return emitter;
+    }
+
+    synchronized long latestSequence() {
+        return latest;
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % ring.length());
+    }
+
+    private synchronized int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private synchronized void unsubscribe(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    @Override
+    public void destroy() {
+        List<Subscriber> open;
+        synchronized (this) {
+            open = List.copyOf(subscribers);
+        }
+        open.forEach(Subscriber::close);
+        senders.shutdownNow();
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        // changes after replayAfter up to and including replayTo are replayed from the ring
+        private final long replayAfter;
+        private final long replayTo;
+        private final boolean resync;
+        private final BlockingQueue<EmployeeChange> queue = new ArrayBlockingQueue<>(subscriberQueueCapacity);
+        private volatile boolean overflowed;
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, long replayAfter, long replayTo, boolean resync) {
+            this.emitter = emitter;
+            this.replayAfter = replayAfter;
+            this.replayTo = replayTo;
+            this.resync = resync;
+        }
+
+        // called with the feed locked; must not block
+        void offer(EmployeeChange change) {
+            if (!overflowed && !queue.offer(change))
+                overflowed = true;
+        }
+
+        void close() {
+            closed = true;
+        }
+
+        void run() {
+            try {
+                if (resync) {
+                    sendResync();
+                    return;
+                }
+                for (long sequence = replayAfter + 1; sequence <= replayTo; sequence++) {
+                    EmployeeChange change = ring.get(slot(sequence));
+                    if (change == null || change.sequence() != sequence) {
+                        // overwritten by newer changes while the replay was being sent
+                        sendResync();
+                        return;
+                    }
+                    send(change);
+                }
+                while (!closed) {
+                    if (overflowed) {
+                        dropped.increment();
+                        sendResync();
+                        return;
+                    }
+                    EmployeeChange change = queue.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+                    if (change != null)
+                        send(change);
+                    else
+                        // keeps proxies from timing out an idle stream, and detects clients that went away
+                        emitter.send(SseEmitter.event().comment("keepalive"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Change feed subscriber disconnected: {}", e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                closed = true;
+                unsubscribe(this);
+                emitter.complete();
+            }
+        }
+
+        private void send(EmployeeChange change) throws IOException {
+            emitter.send(SseEmitter.event()
+                    .id(Long.toString(change.sequence()))
+                    .name(change.type().name().toLowerCase(Locale.ROOT))
+                    .data(change, MediaType.APPLICATION_JSON));
+        }
+
+        private void sendResync() throws IOException {
+            resynced.increment();
+            long resumeFrom = latestSequence();
+            emitter.send(SseEmitter.event()
+                    .id(Long.toString(resumeFrom))
+                    .name(RESYNC_EVENT)
+                    .data(Map.of("resumeFrom", resumeFrom), MediaType.APPLICATION_JSON)
+                    .reconnectTime(1000));
+        }
+    }
+}
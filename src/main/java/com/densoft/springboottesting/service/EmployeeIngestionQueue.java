@@ -0,0 +1,203 @@
+package com.densoft.springboottesting.service;
+
+import com.densoft.springboottesting.dto.EmployeeBatchResult;
+import com.densoft.springboottesting.dto.IngestionStatus;
+import com.densoft.springboottesting.exception.TooManyRequestsException;
+import com.densoft.springboottesting.model.Employee;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind queue for asynchronous creates. Submissions are accepted into a bounded queue and a single
+ * writer thread drains them in batches through {@link EmployeeService#saveEmployees}, so a burst of creates
+ * costs one transaction per batch instead of one per request. When the queue is full, submissions are
+ * rejected with {@link TooManyRequestsException}. On shutdown the queue stops accepting work and the writer
+ * stores what is left before the data source closes.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "employees.ingestion.enabled", havingValue = "true")
+public class EmployeeIngestionQueue implements SmartLifecycle {
+
+    // lower phases stop later: after graceful shutdown has drained in-flight requests and the web server has
+    // stopped (SMART_LIFECYCLE_PHASE - 1024), so no submission arrives once draining starts; the data source is
+    // only closed when beans are destroyed, after every lifecycle has stopped
+    private static final int PHASE = WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+
+    private final EmployeeService employeeService;
+    private final BlockingQueue<Submission> queue;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final long drainTimeoutMillis;
+    private final Cache<UUID, IngestionStatus> statuses;
+    private final Counter rejected;
+    private final DistributionSummary batchSizes;
+    private volatile boolean accepting;
+    private volatile Thread writer;
+
+    public EmployeeIngestionQueue(EmployeeService employeeService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${employees.ingestion.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${employees.ingestion.batch-size:250}") int batchSize,
+                                  @Value("${employees.ingestion.linger:10ms}") Duration linger,
+                                  @Value("${employees.ingestion.status-retention:10m}") Duration statusRetention,
+                                  @Value("${employees.ingestion.drain-timeout:30s}") Duration drainTimeout) {
+        if (batchSize > EmployeeService.MAX_BATCH_SIZE)
+            throw new IllegalArgumentException("employees.ingestion.batch-size must not exceed " + EmployeeService.MAX_BATCH_SIZE);
+        this.employeeService = employeeService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.lingerNanos = linger.toNanos();
+        this.drainTimeoutMillis = drainTimeout.toMillis();
+        // bounded so that clients that never poll cannot grow it without limit
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(queueCapacity * 10L)
+                .expireAfterWrite(statusRetention)
+                .build();
+        Gauge.builder("employees.ingestion.queue.depth", queue, BlockingQueue::size)
+                .description("Creates waiting for the ingestion writer")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("employees.ingestion.rejected")
+                .description("Creates rejected because the ingestion queue was full or stopping")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("employees.ingestion.batch.size")
+                .description("Employees stored per ingestion batch")
+                .register(meterRegistry);
+    }
+
+    public IngestionStatus submit(Employee employee) {
+        UUID trackingId = UUID.randomUUID();
+        IngestionStatus status = IngestionStatus.queued(trackingId);
+        statuses.put(trackingId, status);
+        if (!accepting || !queue.offer(new Submission(trackingId, employee))) {
+            statuses.invalidate(trackingId);
+            rejected.increment();
+            throw new TooManyRequestsException("Ingestion queue is full, retry later", 1);
+        }
+        return status;
+    }
+
+    public Optional<IngestionStatus> status(UUID trackingId) {
+        return Optional.ofNullable(statuses.getIfPresent(trackingId));
+    }
+
+    @Override
+    public void start() {
+        accepting = true;
+        Thread thread = new Thread(this::drain, "employee-ingestion");
+        writer = thread;
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        accepting = false;
+        Thread thread = writer;
+        if (thread == null)
+            return;
+        try {
+            thread.join(drainTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            log.warn("Ingestion writer did not drain within {} ms, {} creates not stored", drainTimeoutMillis, queue.size());
+            // the writer marks what it has not stored as failed once it sees the interrupt
+            thread.interrupt();
+        } else if (!queue.isEmpty()) {
+            // a submit that raced the stop flag; store it on the stopping thread
+            drain();
+        }
+        writer = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return writer != null;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void drain() {
+        List<Submission> batch = new ArrayList<>(batchSize);
+        while (accepting || !queue.isEmpty()) {
+            try {
+                Submission first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null)
+                    continue;
+                batch.add(first);
+                // group commit: linger briefly so a burst fills the batch instead of being written row by row
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !accepting)
+                        break;
+                    Submission next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null)
+                        break;
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                // interrupted by stop() after the drain timeout; nothing taken or still queued will be stored
+                failUnwritten(batch);
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Submission> batch) {
+        batchSizes.record(batch.size());
+        try {
+            List<EmployeeBatchResult> results = employeeService.saveEmployees(batch.stream().map(Submission::employee).toList());
+            for (EmployeeBatchResult result : results) {
+                UUID trackingId = batch.get(result.index()).trackingId();
+                statuses.put(trackingId, result.status() == EmployeeBatchResult.Status.CREATED
+                        ? IngestionStatus.created(trackingId, result.employee().getId())
+                        : IngestionStatus.failed(trackingId, result.error()));
+            }
+        } catch (RuntimeException e) {
+            log.error("Ingestion batch of {} employees failed", batch.size(), e);
+            for (Submission submission : batch)
+                statuses.put(submission.trackingId(), IngestionStatus.failed(submission.trackingId(), e.getMessage()));
+        }
+    }
+
+    private void failUnwritten(List<Submission> batch) {
+        List<Submission> unwritten = new ArrayList<>(batch);
+        queue.drainTo(unwritten);
+        for (Submission submission : unwritten)
+            statuses.put(submission.trackingId(), IngestionStatus.failed(submission.trackingId(), "Ingestion stopped before the employee was stored"));
+        if (!unwritten.isEmpty())
+            log.warn("Ingestion writer interrupted, {} creates marked failed", unwritten.size());
+    }
+
+    private record Submission(UUID trackingId, Employee employee) {
+    }
+}
@@ -0,0 +1,264 @@
+package com.densoft.springboottesting.service;
+
+import com.densoft.springboottesting.dto.EmployeeView;
+import com.densoft.springboottesting.repository.EmployeeRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory prefix index over employee names and emails for typeahead search. Normalized tokens (lower case,
+ * accents stripped) are kept in a sorted map from token to the ids containing it, so a prefix is one range scan.
+ * Every name token is indexed, and each email is indexed as one whole token. The index also holds the
+ * {@link EmployeeView} of every employee, so results are served without touching the database.
+ * <p>
+ * The index is filled from the {@code employees} table at startup and kept current by {@link EmployeeServiceImpl}
+ * after each committed write. Until the startup load completes, results may be incomplete.
+ */
+@Component
+public class EmployeeSearchIndex {
+
+    public static final int MAX_LIMIT = 50;
+    // bounds the work for very short prefixes; ranking happens among these candidates
+    private static final int MAX_CANDIDATES = 5_000;
+    private static final Pattern NON_TOKEN = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final EmployeeRepository employeeRepository;
+    private final ConcurrentSkipListMap<String, long[]> tokens = new ConcurrentSkipListMap<>();
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    // deletes that race the startup load, so the loader does not resurrect them
+    private final Set<Long> removedWhileLoading = ConcurrentHashMap.newKeySet();
+    private volatile boolean ready;
+
+    public EmployeeSearchIndex(EmployeeRepository employeeRepository, MeterRegistry meterRegistry) {
+        this.employeeRepository = employeeRepository;
+        Gauge.builder("employees.search.index.size", entries, Map::size)
+                .description("Employees held in the typeahead search index")
+                .register(meterRegistry);
+        Gauge.builder("employees.search.index.tokens", tokens, Map::size)
+                .description("Distinct tokens in the typeahead search index")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        try (Stream<EmployeeView> employees = employeeRepository.streamAllViews()) {
+            load(employees);
+        }
+        ready = true;
+        removedWhileLoading.clear();
+    }
+
+    /**
+     * Adds employees read outside {@link #load()}, such as from other shards. Must complete before {@link #load()}
+     * does, so deletes racing the read are still skipped.
+     */
+    public void load(Stream<EmployeeView> employees) {
+        employees.forEach(employee -> {
+            if (!removedWhileLoading.contains(employee.id()))
+                index(employee);
+        });
+    }
+
+    /**
+     * Adds or replaces an employee. An update carrying an older version than the indexed one is ignored, so
+     * writes that complete out of order cannot roll the index back.
+     */
+    public void index(EmployeeView employee) {
+        entries.compute(employee.id(), (id, current) -> {
+            if (current != null && version(current.employee()) > version(employee))
+                return current;
+            Entry next = Entry.of(employee);
+            if (current != null) {
+                for (String token : current.tokens())
+                    if (!next.contains(token))
+                        removeId(token, id);
+            }
+            for (String token : next.tokens())
+                if (current == null || !current.contains(token))
+                    addId(token, id);
+            return next;
+        });
+    }
+
+    public void remove(long id) {
+        if (!ready)
+            removedWhileLoading.add(id);
+        entries.computeIfPresent(id, (key, current) -> {
+            for (String token : current.tokens())
+                removeId(token, key);
+            return null;
+        });
+    }
+
+    public EmployeeView get(long id) {
+        Entry entry = entries.get(id);
+        return entry != null ? entry.employee() : null;
+    }
+
+    /**
+     * Employees matching every term of the query as a prefix of a name token or of the email. Exact token
+     * matches rank above prefix matches, and name matches rank above email matches. Ties are broken by id.
+     */
+    public List<EmployeeView> search(String query, int limit) {
+        List<String> terms = queryTerms(query);
+        if (terms.isEmpty())
+            return List.of();
+        int max = Math.min(Math.max(limit, 1), MAX_LIMIT);
+
+        // the longest term is the narrowest range, so it drives the candidate scan
+        String driver = terms.stream().max(Comparator.comparingInt(String::length)).orElseThrow();
+        Set<Long> candidates = new LinkedHashSet<>();
+        scan:
+        for (long[] ids : tokens.subMap(driver, true, driver + Character.MAX_VALUE, false).values()) {
+            for (long id : ids) {
+                candidates.add(id);
+                if (candidates.size() >= MAX_CANDIDATES)
+                    break scan;
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>();
+        for (long id : candidates) {
+            Entry entry = entries.get(id);
+            if (entry == null)
+                continue;
+            int score = 0;
+            for (String term : terms) {
+                int termScore = entry.score(term);
+                if (termScore == 0) {
+                    score = 0;
+                    break;
+                }
+                score += termScore;
+            }
+            if (score > 0)
+                hits.add(new Hit(entry.employee(), score));
+        }
+        hits.sort(Comparator.comparingInt(Hit::score).reversed().thenComparingLong(hit -> hit.employee().id()));
+        return hits.stream().limit(max).map(Hit::employee).toList();
+    }
+
+    private void addId(String token, long id) {
+        tokens.compute(token, (key, ids) -> {
+            if (ids == null)
+                return new long[]{id};
+            int position = Arrays.binarySearch(ids, id);
+            if (position >= 0)
+                return ids;
+            int insertAt = -position - 1;
+            long[] grown = new long[ids.length + 1];
+            System.arraycopy(ids, 0, grown, 0, insertAt);
+            grown[insertAt] = id;
+            System.arraycopy(ids, insertAt, grown, insertAt + 1, ids.length - insertAt);
+            return grown;
+        });
+    }
+
+    private void removeId(String token, long id) {
+        tokens.computeIfPresent(token, (key, ids) -> {
+            int position = Arrays.binarySearch(ids, id);
+            if (position < 0)
+                return ids;
+            if (ids.length == 1)
+                return null;
+            long[] shrunk = new long[ids.length - 1];
+            System.arraycopy(ids, 0, shrunk, 0, position);
+            System.arraycopy(ids, position + 1, shrunk, position, ids.length - position - 1);
+            return shrunk;
+        });
+    }
+
+    private static long version(EmployeeView employee) {
+        return employee.version() != null ? employee.version() : -1L;
+    }
+
+    static String normalize(String value) {
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    static List<String> nameTokens(String value) {
+        if (value == null)
+            return List.of();
+        return Arrays.stream(NON_TOKEN.split(normalize(value))).filter(token -> !token.isEmpty()).toList();
+    }
+
+    // terms containing '@' are email prefixes and kept whole; anything else is split like a name
+    static List<String> queryTerms(String query) {
+        if (query == null)
+            return List.of();
+        List<String> terms = new ArrayList<>();
+        for (String part : WHITESPACE.split(query.strip())) {
+            if (part.isEmpty())
+                continue;
+            if (part.indexOf('@') >= 0)
+                terms.add(normalize(part));
+            else
+                terms.addAll(nameTokens(part));
+        }
+        return terms;
+    }
+
+    private record Entry(EmployeeView employee, List<String> names, String email) {
+
+        static Entry of(EmployeeView employee) {
+            List<String> names = new ArrayList<>(nameTokens(employee.firstName()));
+            names.addAll(nameTokens(employee.lastName()));
+            String email = employee.email() != null ? normalize(employee.email()) : null;
+            return new Entry(employee, List.copyOf(new LinkedHashSet<>(names)), email);
+        }
+
+        List<String> tokens() {
+            if (email == null || names.contains(email))
+                return names;
+            List<String> all = new ArrayList<>(names);
+            all.add(email);
+            return all;
+        }
+
+        boolean contains(String token) {
+            return token.equals(email) || names.contains(token);
+        }
+
+        int score(String term) {
+            int best = 0;
+            for (String name : names) {
+                if (name.equals(term))
+                    return 4;
+                if (name.startsWith(term))
+                    best = 2;
+            }
+            if (email != null) {
+                if (email.equals(term))
+                    return 4;
+                if (best == 0 && email.startsWith(term))
+                    best = 1;
+            }
+            return best;
+        }
+    }
+
+    private record Hit(EmployeeView employee, int score) {
+    }
+}
@@ -1,18 +1,51 @@
 package com.densoft.springboottesting.service;
 
+import com.densoft.springboottesting.dto.EmployeeBatch;
+import com.densoft.springboottesting.dto.EmployeeBatchResult;
+import com.densoft.springboottesting.dto.EmployeePage;
+import com.densoft.springboottesting.dto.EmployeePatch;
+import com.densoft.springboottesting.dto.EmployeeView;
 import com.densoft.springboottesting.model.Employee;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface EmployeeService {
+
+    // limits of the API contract, shared by every implementation and by the controller
+    int DEFAULT_PAGE_SIZE = 50;
+    int MAX_PAGE_SIZE = 500;
+    int MAX_BATCH_SIZE = 1000;
+
     Employee saveEmployee(Employee employee);
 
-    List<Employee> getAllEmployees();
+    List<EmployeeBatchResult> saveEmployees(List<Employee> employees);
+
+    List<EmployeeView> getAllEmployees();
+
+    EmployeePage getEmployeePage(long after, int limit);
+
+    void exportEmployees(Consumer<EmployeeView> consumer);
+
+    Optional<EmployeeView> getEmployeeById(long id);
 
-    Optional<Employee> getEmployeeById(long id);
+    Optional<Long> getEmployeeVersion(long id);
+
+    List<EmployeeView> searchEmployees(String query, int limit);
+
+    List<EmployeeView> getEmployeesByNames(String firstName, String lastName);
+
+    EmployeeBatch getEmployeesByIds(List<Long> ids);
 
     Employee updateEmployee(Employee updatedEmployee);
 
+    Optional<EmployeeView> replaceEmployee(long id, long version, Employee employee);
+
+    boolean patchEmployee(long id, EmployeePatch patch);
+
     void deleteEmployee(long id);
+
+    int deleteEmployees(Collection<Long> ids);
 }
@@ -1,47 +1,334 @@
 package com.densoft.springboottesting.service;
 
+import com.densoft.springboottesting.config.CacheConfig;
+import com.densoft.springboottesting.dto.EmployeeBatch;
+import com.densoft.springboottesting.dto.EmployeeBatchResult;
+import com.densoft.springboottesting.dto.EmployeePage;
+import com.densoft.springboottesting.dto.EmployeePatch;
+import com.densoft.springboottesting.dto.EmployeeView;
 import com.densoft.springboottesting.exception.APIException;
 import com.densoft.springboottesting.model.Employee;
 import com.densoft.springboottesting.repository.EmployeeRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Timed("employees.service")
 public class EmployeeServiceImpl implements EmployeeService {
 
+    public static final int DELETE_CHUNK_SIZE = 1000;
+    // a power of two, so with in_clause_parameter_padding every chunk maps to one of a few cached statements
+    public static final int LOOKUP_CHUNK_SIZE = 512;
+    // rows per transaction; Hibernate further splits each flush into JDBC batches of hibernate.jdbc.batch_size
+    private static final int BATCH_CHUNK_SIZE = 250;
+
     private final EmployeeRepository employeeRepository;
+    private final EmailBloomFilter emailBloomFilter;
+    private final EmployeeSearchIndex employeeSearchIndex;
+    private final EmployeeChangeFeed employeeChangeFeed;
+    private final CacheManager cacheManager;
 
-    public EmployeeServiceImpl(EmployeeRepository employeeRepository) {
+    public EmployeeServiceImpl(EmployeeRepository employeeRepository, EmailBloomFilter emailBloomFilter,
+                               EmployeeSearchIndex employeeSearchIndex, EmployeeChangeFeed employeeChangeFeed,
+                               CacheManager cacheManager) {
         this.employeeRepository = employeeRepository;
+        this.emailBloomFilter = emailBloomFilter;
+        this.employeeSearchIndex = employeeSearchIndex;
+        this.employeeChangeFeed = employeeChangeFeed;
+        this.cacheManager = cacheManager;
     }
 
     @Override
     public Employee saveEmployee(Employee employee) {
-        Optional<Employee> savedEmployee = employeeRepository.findByEmail(employee.getEmail());
-        if (savedEmployee.isPresent())
-            throw new APIException("Employee already exists with given email: " + employee.getEmail());
-        return employeeRepository.save(employee);
+        // a single INSERT; the unique index on email rejects duplicates atomically, even under concurrent creates
+        // a client-supplied id is dropped, the id generator assigns one
+        employee.setId(0);
+        try {
+            Employee savedEmployee = employeeRepository.save(employee);
+            emailBloomFilter.put(savedEmployee.getEmail());
+            EmployeeView created = EmployeeView.of(savedEmployee);
+            employeeSearchIndex.index(created);
+            employeeChangeFeed.created(created);
+            return savedEmployee;
+        } catch (DataIntegrityViolationException e) {
+            throw translate(employee.getEmail(), e);
+        }
+    }
+
+    @Override
+    public List<EmployeeBatchResult> saveEmployees(List<Employee> employees) {
+        if (employees.size() > MAX_BATCH_SIZE)
+            throw new APIException("Batch size exceeds the maximum of " + MAX_BATCH_SIZE + " employees");
+
+        EmployeeBatchResult[] results = new EmployeeBatchResult[employees.size()];
+        Set<String> batchEmails = new HashSet<>();
+        for (int i = 0; i < employees.size(); i++) {
+            String email = employees.get(i).getEmail();
+            if (email != null && !batchEmails.add(email))
+                results[i] = EmployeeBatchResult.failed(i, employees.get(i), "Duplicate email in batch: " + email);
+        }
+        // only emails the bloom filter cannot rule out need the database existence check
+        Set<String> possiblyExisting = emailBloomFilter.filterPossiblyExisting(batchEmails);
+        Set<String> existingEmails = possiblyExisting.isEmpty() ? Set.of() : employeeRepository.findExistingEmails(possiblyExisting);
+
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < employees.size(); i++) {
+            if (results[i] != null)
+                continue;
+            Employee employee = employees.get(i);
+            if (existingEmails.contains(employee.getEmail()))
+                results[i] = EmployeeBatchResult.failed(i, employee, "Employee already exists with given email: " + employee.getEmail());
+            else
+                pending.add(i);
+        }
+
+        for (int from = 0; from < pending.size(); from += BATCH_CHUNK_SIZE) {
+            List<Integer> chunk = pending.subList(from, Math.min(from + BATCH_CHUNK_SIZE, pending.size()));
+            saveChunk(employees, chunk, results);
+        }
+        return Arrays.asList(results);
+    }
+
+    private void saveChunk(List<Employee> employees, List<Integer> chunk, EmployeeBatchResult[] results) {
+        List<Employee> toSave = chunk.stream().map(employees::get).toList();
+        // a client-supplied id is dropped, the id generator assigns one
+        toSave.forEach(employee -> employee.setId(0));
+        try {
+            // saveAll runs in a single transaction, so the chunk is flushed as batched INSERTs on commit
+            List<Employee> saved = employeeRepository.saveAll(toSave);
+            for (int i = 0; i < chunk.size(); i++) {
+                results[chunk.get(i)] = EmployeeBatchResult.created(chunk.get(i), saved.get(i));
+                emailBloomFilter.put(saved.get(i).getEmail());
+                EmployeeView created = EmployeeView.of(saved.get(i));
+                employeeSearchIndex.index(created);
+                employeeChangeFeed.created(created);
+            }
+        } catch (DataIntegrityViolationException e) {
+            // a row raced us or violates a constraint; isolate it by retrying the chunk one row at a time
+            for (int i = 0; i < chunk.size(); i++) {
+                int index = chunk.get(i);
+                Employee employee = employees.get(index);
+                // the failed flush may have set an id and version that must not make the row look detached
+                employee.setId(0);
+                employee.setVersion(null);
+                try {
+                    Employee savedEmployee = employeeRepository.save(employee);
+                    results[index] = EmployeeBatchResult.created(index, savedEmployee);
+                    emailBloomFilter.put(savedEmployee.getEmail());
+                    EmployeeView created = EmployeeView.of(savedEmployee);
+                    employeeSearchIndex.index(created);
+                    employeeChangeFeed.created(created);
+                } catch (DataIntegrityViolationException rowFailure) {
+                    employee.setId(0);
+                    employee.setVersion(null);
+                    results[index] = EmployeeBatchResult.failed(index, employee, translate(employee.getEmail(), rowFailure).getMessage());
+                }
+            }
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EmployeeView> getAllEmployees() {
+        return employeeRepository.findAllViews();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public EmployeePage getEmployeePage(long after, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        // fetch one extra row to learn whether another page exists without a count query
+        List<EmployeeView> employees = employeeRepository.findViewsAfter(after, PageRequest.ofSize(pageSize + 1));
+        if (employees.size() <= pageSize)
+            return new EmployeePage(employees, null);
+        List<EmployeeView> content = employees.subList(0, pageSize);
+        return new EmployeePage(List.copyOf(content), content.get(pageSize - 1).id());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportEmployees(Consumer<EmployeeView> consumer) {
+        // projected rows never enter the persistence context, so memory stays flat for any table size
+        try (Stream<EmployeeView> employees = employeeRepository.streamAllViews()) {
+            employees.forEach(consumer);
+        }
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#id", unless = "#result == null")
+    @Transactional(readOnly = true)
+    public Optional<EmployeeView> getEmployeeById(long id) {
+        return employeeRepository.findViewById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> getEmployeeVersion(long id) {
+        // the view cached by getEmployeeById answers revalidation without a connection, the lazy data source only
+        // fetches one on a miss; the miss reads just the version column and, being read-only, may go to a replica
+        Cache employees = cacheManager.getCache(CacheConfig.EMPLOYEES_CACHE);
+        EmployeeView cached = employees != null ? employees.get(id, EmployeeView.class) : null;
+        if (cached != null)
+            return Optional.ofNullable(cached.version());
+        return employeeRepository.findVersionById(id);
     }
 
     @Override
-    public List<Employee> getAllEmployees() {
-        return employeeRepository.findAll();
+    public List<EmployeeView> searchEmployees(String query, int limit) {
+        return employeeSearchIndex.search(query, limit);
     }
 
     @Override
-    public Optional<Employee> getEmployeeById(long id) {
-        return employeeRepository.findById(id);
+    @Transactional(readOnly = true)
+    public List<EmployeeView> getEmployeesByNames(String firstName, String lastName) {
+        return employeeRepository.findViewsByBothNames(firstName, lastName);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public EmployeeBatch getEmployeesByIds(List<Long> ids) {
+        if (ids.size() > MAX_BATCH_SIZE)
+            throw new APIException("Cannot fetch more than " + MAX_BATCH_SIZE + " employees at once");
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        Map<Long, EmployeeView> found = new HashMap<>();
+        for (int from = 0; from < distinctIds.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, distinctIds.size()));
+            employeeRepository.findViewsByIdIn(chunk).forEach(employee -> found.put(employee.id(), employee));
+        }
+        List<EmployeeView> employees = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : distinctIds) {
+            EmployeeView employee = found.get(id);
+            if (employee != null)
+                employees.add(employee);
+            else
+                missingIds.add(id);
+        }
+        return new EmployeeBatch(employees, missingIds);
+    }
+
+    @Override
+    // the cache holds views, so writes evict rather than put the returned entity
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#updatedEmployee.id")
     public Employee updateEmployee(Employee updatedEmployee) {
-        return employeeRepository.save(updatedEmployee);
+        try {
+            Employee savedEmployee = employeeRepository.save(updatedEmployee);
+            emailBloomFilter.put(savedEmployee.getEmail());
+            EmployeeView updated = EmployeeView.of(savedEmployee);
+            employeeSearchIndex.index(updated);
+            employeeChangeFeed.updated(updated);
+            return savedEmployee;
+        } catch (DataIntegrityViolationException e) {
+            throw translate(updatedEmployee.getEmail(), e);
+        }
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#id")
+    public Optional<EmployeeView> replaceEmployee(long id, long version, Employee employee) {
+        int updated;
+        try {
+            // one conditional UPDATE: no load, no merge, and the version check is done by the database
+            updated = employeeRepository.replaceById(id, version, employee.getFirstName(), employee.getLastName(), employee.getEmail());
+        } catch (DataIntegrityViolationException e) {
+            throw translate(employee.getEmail(), e);
+        }
+        if (updated == 0) {
+            if (!employeeRepository.existsById(id))
+                return Optional.empty();
+            throw new ObjectOptimisticLockingFailureException(Employee.class, id);
+        }
+        emailBloomFilter.put(employee.getEmail());
+        EmployeeView replaced = new EmployeeView(id, employee.getFirstName(), employee.getLastName(), employee.getEmail(), version + 1);
+        employeeSearchIndex.index(replaced);
+        employeeChangeFeed.updated(replaced);
+        return Optional.of(replaced);
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#id")
+    public boolean patchEmployee(long id, EmployeePatch patch) {
+        if (patch.version() == null)
+            throw new APIException("Employee version is required for a partial update");
+        int updated;
+        try {
+            updated = employeeRepository.patchById(id, patch.version(), patch.firstName(), patch.lastName(), patch.email());
+        } catch (DataIntegrityViolationException e) {
+            throw translate(patch.email(), e);
+        }
+        if (updated == 0) {
+            // only the failure path pays for the extra query that tells a stale version from a missing row
+            if (!employeeRepository.existsById(id))
+                return false;
+            throw new ObjectOptimisticLockingFailureException(Employee.class, id);
+        }
+        emailBloomFilter.put(patch.email());
+        // the indexed view already holds the unpatched fields; only fall back to a read when it is not loaded yet
+        EmployeeView current = employeeSearchIndex.get(id);
+        Optional<EmployeeView> patched = current != null && patch.version().equals(current.version())
+                ? Optional.of(new EmployeeView(id,
+                        patch.firstName() != null ? patch.firstName() : current.firstName(),
+                        patch.lastName() != null ? patch.lastName() : current.lastName(),
+                        patch.email() != null ? patch.email() : current.email(),
+                        patch.version() + 1))
+                : employeeRepository.findViewById(id);
+        patched.ifPresent(employee -> {
+            employeeSearchIndex.index(employee);
+            employeeChangeFeed.updated(employee);
+        });
+        return true;
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#id")
     public void deleteEmployee(long id) {
-        employeeRepository.deleteById(id);
+        // the email stays in the bloom filter; a stale positive only costs one existence query later
+        if (employeeRepository.deleteByIdReturningCount(id) == 0)
+            return;
+        employeeSearchIndex.remove(id);
+        employeeChangeFeed.deleted(id);
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, allEntries = true)
+    public int deleteEmployees(Collection<Long> ids) {
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        int deleted = 0;
+        // each chunk is one DELETE ... WHERE id IN (...) in its own transaction, bounding statement size and lock time
+        for (int from = 0; from < distinctIds.size(); from += DELETE_CHUNK_SIZE) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + DELETE_CHUNK_SIZE, distinctIds.size()));
+            deleted += employeeRepository.deleteInBulkByIds(chunk);
+            chunk.forEach(employeeSearchIndex::remove);
+            // the bulk DELETE reports a count, not ids, so ids that did not exist are announced as deleted too
+            chunk.forEach(employeeChangeFeed::deleted);
+        }
+        return deleted;
+    }
+
+    private static APIException translate(String email, DataIntegrityViolationException e) {
+        String cause = String.valueOf(e.getMostSpecificCause().getMessage());
+        if (cause.toLowerCase().contains(Employee.EMAIL_UNIQUE_CONSTRAINT))
+            return new APIException("Employee already exists with given email: " + email, e);
+        return new APIException("Employee could not be saved: constraint violation", e);
     }
 }
@@ -0,0 +1,90 @@
+package com.densoft.springboottesting.sharding;
+
+import com.densoft.springboottesting.exception.APIException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Global email uniqueness for sharded employees. The unique index on {@code employees.email} only covers one shard,
+ * so every email is also claimed in {@code employee_emails} on the shard its hash selects, whose primary key makes
+ * the claim atomic. A claim is taken before the employee is written and released when the write fails, the email
+ * changes or the employee is deleted. A process crash between the claim and the employee write leaves a claim that
+ * blocks the email until the row is removed from {@code employee_emails}.
+ */
+public class EmailDirectory {
+
+    private final List<JdbcTemplate> shards;
+
+    public EmailDirectory(List<DataSource> shards) {
+        this.shards = shards.stream().map(JdbcTemplate::new).toList();
+    }
+
+    public void claim(String email, long employeeId) {
+        if (email == null)
+            return;
+        JdbcTemplate shard = shard(email);
+        try {
+            shard.update("INSERT INTO employee_emails (email, employee_id) VALUES (?, ?)", email, employeeId);
+        } catch (DuplicateKeyException e) {
+            List<Long> owner = shard.queryForList("SELECT employee_id FROM employee_emails WHERE email = ?", Long.class, email);
+            // claiming an email the employee already holds is not a conflict
+            if (owner.size() == 1 && owner.get(0) == employeeId)
+                return;
+            throw new APIException("Employee already exists with given email: " + email, e);
+        }
+    }
+
+    /**
+     * Claims {@code emails.get(i)} for {@code employeeIds[i]} with one batched INSERT per directory shard, and returns
+     * the reason for each position whose email is held by another employee. Null emails are skipped.
+     */
+    public Map<Integer, String> claimAll(List<String> emails, long[] employeeIds) {
+        Map<Integer, List<Integer>> byShard = new TreeMap<>();
+        for (int i = 0; i < emails.size(); i++)
+            if (emails.get(i) != null)
+                byShard.computeIfAbsent(shardIndex(emails.get(i)), shard -> new ArrayList<>()).add(i);
+        Map<Integer, String> conflicts = new HashMap<>();
+        byShard.forEach((shard, indexes) -> {
+            try {
+                shards.get(shard).batchUpdate("INSERT INTO employee_emails (email, employee_id) VALUES (?, ?)", indexes,
+                        indexes.size(), (statement, i) -> {
+                            statement.setString(1, emails.get(i));
+                            statement.setLong(2, employeeIds[i]);
+                        });
+            } catch (DataAccessException e) {
+                // drivers differ in whether the rest of a failed batch still runs, so settle each row on its own;
+                // rows the batch did insert are already ours and claim again without a conflict
+                for (int i : indexes) {
+                    try {
+                        claim(emails.get(i), employeeIds[i]);
+                    } catch (APIException conflict) {
+                        conflicts.put(i, conflict.getMessage());
+                    }
+                }
+            }
+        });
+        return conflicts;
+    }
+
+    public void release(String email, long employeeId) {
+        if (email == null)
+            return;
+        shard(email).update("DELETE FROM employee_emails WHERE email = ? AND employee_id = ?", email, employeeId);
+    }
+
+    private JdbcTemplate shard(String email) {
+        return shards.get(shardIndex(email));
+    }
+
+    private int shardIndex(String email) {
+        return Math.floorMod(ShardRoutingDataSource.mix(email.hashCode()), shards.size());
+    }
+}
@@ -0,0 +1,51 @@
+package com.densoft.springboottesting.sharding;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Time-ordered ids that are unique across shards and application instances without coordination: 41 bits of
+ * milliseconds since {@link #EPOCH_MILLIS}, 5 bits of node id and 7 bits of per-millisecond sequence. The 53 bits
+ * keep every id exactly representable as a JSON number in JavaScript and other clients that parse numbers as
+ * doubles, so ids and keyset cursors stay plain numbers in the API. The price is at most 32 instances and 128 ids
+ * per millisecond per instance. Each instance needs its own node id. Ids never decrease: when the wall clock steps
+ * back, or more than 128 ids are taken in one millisecond, the generator keeps counting from the last millisecond it
+ * used instead of waiting.
+ */
+public class ShardIdGenerator {
+
+    // 2024-01-01T00:00:00Z; 41 bits of milliseconds last until 2093
+    static final long EPOCH_MILLIS = 1_704_067_200_000L;
+    static final int NODE_BITS = 5;
+    static final int SEQUENCE_BITS = 7;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeId;
+    private final LongSupplier clock;
+    private long lastMillis = -1;
+    private long sequence;
+
+    public ShardIdGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    ShardIdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID)
+            throw new IllegalArgumentException("node id must be between 0 and " + MAX_NODE_ID);
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    public synchronized long nextId() {
+        long now = Math.max(clock.getAsLong(), lastMillis);
+        if (now == lastMillis) {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0)
+                now = lastMillis + 1;
+        } else {
+            sequence = 0;
+        }
+        lastMillis = now;
+        return ((now - EPOCH_MILLIS) << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+}
@@ -0,0 +1,52 @@
+package com.densoft.springboottesting.sharding;
+
+import com.densoft.springboottesting.dto.EmployeeView;
+import com.densoft.springboottesting.repository.EmployeeRepository;
+import com.densoft.springboottesting.service.EmailBloomFilter;
+import com.densoft.springboottesting.service.EmployeeSearchIndex;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+/**
+ * Fills the in-memory search index and email filter from shards 1..N-1. Their own startup loads read shard 0,
+ * the default route, and run after this one.
+ */
+public class ShardLoader {
+
+    private final ShardRoutingDataSource shards;
+    private final EmployeeRepository employeeRepository;
+    private final EmployeeSearchIndex employeeSearchIndex;
+    private final EmailBloomFilter emailBloomFilter;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ShardLoader(ShardRoutingDataSource shards, EmployeeRepository employeeRepository,
+                       EmployeeSearchIndex employeeSearchIndex, EmailBloomFilter emailBloomFilter,
+                       TransactionTemplate readOnlyTransaction) {
+        this.shards = shards;
+        this.employeeRepository = employeeRepository;
+        this.employeeSearchIndex = employeeSearchIndex;
+        this.emailBloomFilter = emailBloomFilter;
+        this.readOnlyTransaction = readOnlyTransaction;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void load() {
+        for (int shard = 1; shard < shards.shardCount(); shard++) {
+            shards.onShard(shard, () -> readOnlyTransaction.execute(status -> {
+                try (Stream<EmployeeView> employees = employeeRepository.streamAllViews()) {
+                    employeeSearchIndex.load(employees);
+                }
+                try (Stream<String> emails = employeeRepository.streamAllEmails()) {
+                    emails.forEach(emailBloomFilter::put);
+                }
+                return null;
+            }));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.densoft.springboottesting.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Hands out connections to the shard selected with {@link #onShard}. Without a selection, connections come from
+ * shard 0, which is also where Hibernate validates or creates the schema at startup.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final ThreadLocal<Integer> CURRENT_SHARD = new ThreadLocal<>();
+
+    private final List<DataSource> shards;
+
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        if (shards.isEmpty())
+            throw new IllegalArgumentException("at least one shard is required");
+        this.shards = List.copyOf(shards);
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < this.shards.size(); i++)
+            targets.put(i, this.shards.get(i));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(this.shards.get(0));
+        // an unknown shard number is a bug, never quietly served from shard 0
+        setLenientFallback(false);
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    public List<DataSource> shards() {
+        return shards;
+    }
+
+    /**
+     * The shard an employee id lives on. Ids are mixed first, so consecutive ids spread evenly.
+     */
+    public int shardOf(long id) {
+        return Math.floorMod(mix(id), shards.size());
+    }
+
+    /**
+     * Runs {@code work} with connections routed to {@code shard}. Must be called outside a transaction, because a
+     * transaction keeps the connection it started with.
+     */
+    public <T> T onShard(int shard, Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive())
+            throw new IllegalStateException("Cannot switch shards inside a transaction");
+        Integer previous = CURRENT_SHARD.get();
+        CURRENT_SHARD.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous != null)
+                CURRENT_SHARD.set(previous);
+            else
+                CURRENT_SHARD.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return CURRENT_SHARD.get();
+    }
+
+    static long mix(long h) {
+        h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+        h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+}
@@ -0,0 +1,315 @@
+package com.densoft.springboottesting.sharding;
+
+import com.densoft.springboottesting.dto.EmployeeBatch;
+import com.densoft.springboottesting.dto.EmployeeBatchResult;
+import com.densoft.springboottesting.dto.EmployeePage;
+import com.densoft.springboottesting.dto.EmployeePatch;
+import com.densoft.springboottesting.dto.EmployeeView;
+import com.densoft.springboottesting.exception.APIException;
+import com.densoft.springboottesting.model.Employee;
+import com.densoft.springboottesting.service.EmployeeService;
+import com.densoft.springboottesting.service.EmployeeServiceImpl;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static com.densoft.springboottesting.model.AssignedOrSequenceGenerator.assigningIds;
+
+/**
+ * {@link EmployeeService} over several databases. Each employee lives on the shard its id hashes to, and ids come
+ * from {@link ShardIdGenerator}, so they are unique across shards. Operations on one employee run the
+ * {@link EmployeeServiceImpl} logic on that shard only. Lists, pages and lookups by several ids query the shards
+ * in parallel and merge the results in id order. {@link EmailDirectory} keeps emails unique across shards.
+ */
+public class ShardedEmployeeService implements EmployeeService, DisposableBean {
+
+    private final EmployeeService shardService;
+    private final ShardRoutingDataSource shards;
+    private final EmailDirectory emailDirectory;
+    private final ShardIdGenerator idGenerator;
+    private final ExecutorService scatter = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ShardedEmployeeService(EmployeeService shardService, ShardRoutingDataSource shards,
+                                  EmailDirectory emailDirectory, ShardIdGenerator idGenerator) {
+        this.shardService = shardService;
+        this.shards = shards;
+        this.emailDirectory = emailDirectory;
+        this.idGenerator = idGenerator;
+    }
+
+    @Override
+    public Employee saveEmployee(Employee employee) {
+        long id = idGenerator.nextId();
+        emailDirectory.claim(employee.getEmail(), id);
+        IdentityHashMap<Object, Long> assignedIds = new IdentityHashMap<>();
+        assignedIds.put(employee, id);
+        try {
+            return shards.onShard(shards.shardOf(id), () -> assigningIds(assignedIds, () -> shardService.saveEmployee(employee)));
+        } catch (RuntimeException e) {
+            emailDirectory.release(employee.getEmail(), id);
+            employee.setId(0);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<EmployeeBatchResult> saveEmployees(List<Employee> employees) {
+        if (employees.size() > MAX_BATCH_SIZE)
+            throw new APIException("Batch size exceeds the maximum of " + MAX_BATCH_SIZE + " employees");
+
+        EmployeeBatchResult[] results = new EmployeeBatchResult[employees.size()];
+        long[] ids = new long[employees.size()];
+        for (int i = 0; i < employees.size(); i++)
+            ids[i] = idGenerator.nextId();
+        // batched per directory shard; the claims also catch duplicates within the batch that would land on different shards
+        Map<Integer, String> conflicts = emailDirectory.claimAll(employees.stream().map(Employee::getEmail).toList(), ids);
+        Map<Integer, List<Integer>> byShard = new TreeMap<>();
+        for (int i = 0; i < employees.size(); i++) {
+            Employee employee = employees.get(i);
+            if (conflicts.containsKey(i)) {
+                results[i] = EmployeeBatchResult.failed(i, employee, conflicts.get(i));
+                continue;
+            }
+            byShard.computeIfAbsent(shards.shardOf(ids[i]), shard -> new ArrayList<>()).add(i);
+        }
+
+        scatter(byShard.keySet(), shard -> {
+            List<Integer> indexes = byShard.get(shard);
+            IdentityHashMap<Object, Long> assignedIds = new IdentityHashMap<>();
+            for (int index : indexes)
+                assignedIds.put(employees.get(index), ids[index]);
+            List<EmployeeBatchResult> shardResults;
+            try {
+                shardResults = assigningIds(assignedIds, () -> shardService.saveEmployees(indexes.stream().map(employees::get).toList()));
+            } catch (RuntimeException e) {
+                shardResults = IntStream.range(0, indexes.size())
+                        .mapToObj(i -> EmployeeBatchResult.failed(i, employees.get(indexes.get(i)), "Employee could not be saved: " + e.getMessage()))
+                        .toList();
+            }
+            for (EmployeeBatchResult result : shardResults) {
+                int index = indexes.get(result.index());
+                results[index] = new EmployeeBatchResult(index, result.status(), result.employee(), result.error());
+                if (result.status() == EmployeeBatchResult.Status.FAILED) {
+                    emailDirectory.release(employees.get(index).getEmail(), ids[index]);
+                    employees.get(index).setId(0);
+                }
+            }
+            return null;
+        });
+        return Arrays.asList(results);
+    }
+
+    @Override
+    public List<EmployeeView> getAllEmployees() {
+        return mergeById(scatter(allShards(), shard -> shardService.getAllEmployees()));
+    }
+
+    @Override
+    public EmployeePage getEmployeePage(long after, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        // every shard returns its own next page; the global page is the smallest ids among them
+        List<EmployeePage> pages = scatter(allShards(), shard -> shardService.getEmployeePage(after, pageSize));
+        List<EmployeeView> merged = mergeById(pages.stream().map(EmployeePage::content).toList());
+        boolean more = merged.size() > pageSize || pages.stream().anyMatch(page -> page.nextCursor() != null);
+        List<EmployeeView> content = merged.subList(0, Math.min(pageSize, merged.size()));
+        Long nextCursor = more && !content.isEmpty() ? content.get(content.size() - 1).id() : null;
+        return new EmployeePage(List.copyOf(content), nextCursor);
+    }
+
+    @Override
+    public void exportEmployees(Consumer<EmployeeView> consumer) {
+        // merged keyset pages rather than one cursor per shard, so no connection stays open while the client reads
+        Long after = 0L;
+        while (after != null) {
+            EmployeePage page = getEmployeePage(after, MAX_PAGE_SIZE);
+            page.content().forEach(consumer);
+            after = page.nextCursor();
+        }
+    }
+
+    @Override
+    public Optional<EmployeeView> getEmployeeById(long id) {
+        return shards.onShard(shards.shardOf(id), () -> shardService.getEmployeeById(id));
+    }
+
+    @Override
+    public Optional<Long> getEmployeeVersion(long id) {
+        return shards.onShard(shards.shardOf(id), () -> shardService.getEmployeeVersion(id));
+    }
+
+    @Override
+    public List<EmployeeView> searchEmployees(String query, int limit) {
+        // the search index is in memory and holds every shard
+        return shardService.searchEmployees(query, limit);
+    }
+
+    @Override
+    public List<EmployeeView> getEmployeesByNames(String firstName, String lastName) {
+        List<EmployeeView> employees = new ArrayList<>();
+        scatter(allShards(), shard -> shardService.getEmployeesByNames(firstName, lastName)).forEach(employees::addAll);
+        employees.sort(Comparator.comparingLong(EmployeeView::id));
+        return employees;
+    }
+
+    @Override
+    public EmployeeBatch getEmployeesByIds(List<Long> ids) {
+        if (ids.size() > MAX_BATCH_SIZE)
+            throw new APIException("Cannot fetch more than " + MAX_BATCH_SIZE + " employees at once");
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        Map<Integer, List<Long>> byShard = groupByShard(distinctIds);
+        Map<Long, EmployeeView> found = new HashMap<>();
+        for (EmployeeBatch batch : scatter(byShard.keySet(), shard -> shardService.getEmployeesByIds(byShard.get(shard))))
+            batch.employees().forEach(employee -> found.put(employee.id(), employee));
+        List<EmployeeView> employees = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : distinctIds) {
+            EmployeeView employee = found.get(id);
+            if (employee != null)
+                employees.add(employee);
+            else
+                missingIds.add(id);
+        }
+        return new EmployeeBatch(employees, missingIds);
+    }
+
+    @Override
+    public Employee updateEmployee(Employee updatedEmployee) {
+        long id = updatedEmployee.getId();
+        return shards.onShard(shards.shardOf(id), () -> changeEmail(id, updatedEmployee.getEmail(),
+                () -> shardService.updateEmployee(updatedEmployee), updated -> true));
+    }
+
+    @Override
+    public Optional<EmployeeView> replaceEmployee(long id, long version, Employee employee) {
+        return shards.onShard(shards.shardOf(id), () -> changeEmail(id, employee.getEmail(),
+                () -> shardService.replaceEmployee(id, version, employee), Optional::isPresent));
+    }
+
+    @Override
+    public boolean patchEmployee(long id, EmployeePatch patch) {
+        return shards.onShard(shards.shardOf(id), () -> changeEmail(id, patch.email(),
+                () -> shardService.patchEmployee(id, patch), Boolean::booleanValue));
+    }
+
+    @Override
+    public void deleteEmployee(long id) {
+        shards.onShard(shards.shardOf(id), () -> {
+            Optional<EmployeeView> employee = shardService.getEmployeeById(id);
+            shardService.deleteEmployee(id);
+            employee.ifPresent(deleted -> emailDirectory.release(deleted.email(), id));
+            return null;
+        });
+    }
+
+    @Override
+    public int deleteEmployees(Collection<Long> ids) {
+        Map<Integer, List<Long>> byShard = groupByShard(ids.stream().distinct().toList());
+        return scatter(byShard.keySet(), shard -> {
+            List<Long> shardIds = byShard.get(shard);
+            // the emails are needed to release their claims once the rows are gone
+            List<EmployeeView> employees = new ArrayList<>();
+            for (int from = 0; from < shardIds.size(); from += MAX_BATCH_SIZE)
+                employees.addAll(shardService.getEmployeesByIds(
+                        shardIds.subList(from, Math.min(from + MAX_BATCH_SIZE, shardIds.size()))).employees());
+            int deleted = shardService.deleteEmployees(shardIds);
+            employees.forEach(employee -> emailDirectory.release(employee.email(), employee.id()));
+            return deleted;
+        }).stream().mapToInt(Integer::intValue).sum();
+    }
+
+    @Override
+    public void destroy() {
+        scatter.shutdown();
+    }
+
+    // claims the new email before the write and releases whichever of the two emails the employee no longer holds
+    private <T> T changeEmail(long id, String email, Supplier<T> write, Predicate<T> written) {
+        String previous = shardService.getEmployeeById(id).map(EmployeeView::email).orElse(null);
+        if (email == null || email.equals(previous))
+            return write.get();
+        emailDirectory.claim(email, id);
+        T result;
+        try {
+            result = write.get();
+        } catch (RuntimeException e) {
+            emailDirectory.release(email, id);
+            throw e;
+        }
+        if (written.test(result))
+            emailDirectory.release(previous, id);
+        else
+            emailDirectory.release(email, id);
+        return result;
+    }
+
+    private List<Integer> allShards() {
+        return IntStream.range(0, shards.shardCount()).boxed().toList();
+    }
+
+    private Map<Integer, List<Long>> groupByShard(List<Long> ids) {
+        Map<Integer, List<Long>> byShard = new TreeMap<>();
+        for (Long id : ids)
+            byShard.computeIfAbsent(shards.shardOf(id), shard -> new ArrayList<>()).add(id);
+        return byShard;
+    }
+
+    // runs work on each shard concurrently, each call on its own thread and in its own transaction
+    private <T> List<T> scatter(Collection<Integer> shardNumbers, IntFunction<T> work) {
+        List<CompletableFuture<T>> futures = shardNumbers.stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> shards.onShard(shard, () -> work.apply(shard)), scatter))
+                .toList();
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<T> future : futures)
+                results.add(future.join());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw e;
+        }
+        return results;
+    }
+
+    // k-way merge of lists that are each sorted by id
+    private static List<EmployeeView> mergeById(List<List<EmployeeView>> sortedLists) {
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(Comparator.comparingLong(cursor -> cursor.head().id()));
+        int size = 0;
+        for (List<EmployeeView> list : sortedLists) {
+            size += list.size();
+            Iterator<EmployeeView> iterator = list.iterator();
+            if (iterator.hasNext())
+                heads.add(new Cursor(iterator.next(), iterator));
+        }
+        List<EmployeeView> merged = new ArrayList<>(size);
+        while (!heads.isEmpty()) {
+            Cursor cursor = heads.poll();
+            merged.add(cursor.head());
+            if (cursor.rest().hasNext())
+                heads.add(new Cursor(cursor.rest().next(), cursor.rest()));
+        }
+        return merged;
+    }
+
+    private record Cursor(EmployeeView head, Iterator<EmployeeView> rest) {
+    }
+}
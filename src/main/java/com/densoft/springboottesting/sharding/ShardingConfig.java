@@ -0,0 +1,103 @@
+package com.densoft.springboottesting.sharding;
+
+import com.densoft.springboottesting.repository.EmployeeRepository;
+import com.densoft.springboottesting.service.EmailBloomFilter;
+import com.densoft.springboottesting.service.EmployeeSearchIndex;
+import com.densoft.springboottesting.service.EmployeeService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured data source with one pool per shard URL, routed by {@link ShardRoutingDataSource},
+ * and puts {@link ShardedEmployeeService} in front of {@code EmployeeServiceImpl}. Each pool publishes Hikari
+ * metrics under its own pool name. Not combinable with replica routing, which also replaces the data source.
+ * <p>
+ * The Hibernate query cache is turned off: it keys results by query and parameters, not by database, so the same
+ * query scattered over several shards would be answered with the first shard's rows. The entity cache stays on,
+ * since ids are unique across shards.
+ */
+@Configuration
+@ConditionalOnProperty(name = "employees.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(DataSourceProperties properties,
+                                                         MeterRegistry meterRegistry,
+                                                         @Value("${employees.sharding.urls}") List<String> shardUrls,
+                                                         @Value("${employees.sharding.initialize-schema:false}") boolean initializeSchema) {
+        List<DataSource> shards = new ArrayList<>();
+        for (int i = 0; i < shardUrls.size(); i++) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setJdbcUrl(shardUrls.get(i).trim());
+            pool.setUsername(properties.determineUsername());
+            pool.setPassword(properties.determinePassword());
+            pool.setDriverClassName(properties.determineDriverClassName());
+            pool.setPoolName("shard-" + i);
+            pool.setMetricRegistry(meterRegistry);
+            shards.add(pool);
+        }
+        // before Hibernate starts, so it can validate the schema on shard 0
+        if (initializeSchema) {
+            ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("db/shard-schema.sql"));
+            shards.forEach(populator::execute);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer shardingQueryCacheCustomizer() {
+        return properties -> properties.put(AvailableSettings.USE_QUERY_CACHE, false);
+    }
+
+    @Bean
+    public ShardIdGenerator shardIdGenerator(@Value("${employees.sharding.node-id:0}") int nodeId) {
+        return new ShardIdGenerator(nodeId);
+    }
+
+    @Bean
+    public EmailDirectory emailDirectory(ShardRoutingDataSource shardRoutingDataSource) {
+        return new EmailDirectory(shardRoutingDataSource.shards());
+    }
+
+    @Bean
+    @Primary
+    public ShardedEmployeeService shardedEmployeeService(@Qualifier("employeeServiceImpl") EmployeeService employeeService,
+                                                         ShardRoutingDataSource shardRoutingDataSource,
+                                                         EmailDirectory emailDirectory,
+                                                         ShardIdGenerator shardIdGenerator) {
+        return new ShardedEmployeeService(employeeService, shardRoutingDataSource, emailDirectory, shardIdGenerator);
+    }
+
+    @Bean
+    public ShardLoader shardLoader(ShardRoutingDataSource shardRoutingDataSource, EmployeeRepository employeeRepository,
+                                   EmployeeSearchIndex employeeSearchIndex, EmailBloomFilter emailBloomFilter,
+                                   PlatformTransactionManager transactionManager) {
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        return new ShardLoader(shardRoutingDataSource, employeeRepository, employeeSearchIndex, emailBloomFilter, readOnlyTransaction);
+    }
+}
@@ -0,0 +1,17 @@
+-- schema for each shard when employees.sharding.initialize-schema=true; matches the Employee mapping
+CREATE SEQUENCE IF NOT EXISTS employees_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS employees (
+    id BIGINT NOT NULL PRIMARY KEY,
+    first_name VARCHAR(255) NOT NULL,
+    last_name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    version BIGINT,
+    CONSTRAINT uk_employees_email UNIQUE (email)
+);
+
+-- email claims for cross-shard uniqueness; a claim lives on the shard the email hashes to, not the employee's
+CREATE TABLE IF NOT EXISTS employee_emails (
+    email VARCHAR(255) NOT NULL PRIMARY KEY,
+    employee_id BIGINT NOT NULL
+);
@@ -0,0 +1,184 @@
+package com.densoft.springboottesting.startup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures cold start as the time from launching a JVM to the first successful {@code GET /api/employees/{id}}, in
+ * each combination of Spring AOT and Class Data Sharing. For the CDS modes a training run first records a dynamic
+ * archive of the classes loaded up to that first request. Every run starts a fresh JVM, so the numbers include JVM
+ * startup, context refresh, Hibernate bootstrap and H2 initialization.
+ * <p>
+ * Runs against the plain (non-repackaged) application jar and its dependency jars, because CDS only archives
+ * classes loaded from jar files on the class path, not from jars nested in an executable jar.
+ */
+public final class StartupBenchmark {
+
+    private static final String MAIN_CLASS = "com.densoft.springboottesting.SpringBootTestingApplication";
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final String classpath;
+    private final Path directory;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    private StartupBenchmark(String classpath, Path directory) throws IOException {
+        this.classpath = classpath;
+        this.directory = Files.createDirectories(directory);
+    }
+
+    enum Mode {
+        JVM(false, false), CDS(false, true), AOT(true, false), AOT_CDS(true, true);
+
+        final boolean aot;
+        final boolean cds;
+
+        Mode(boolean aot, boolean cds) {
+            this.aot = aot;
+            this.cds = cds;
+        }
+
+        String key() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+
+        static Mode of(String key) {
+            return valueOf(key.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+
+    record Result(List<Double> samplesMillis, double min, double median, double max) {
+
+        static Result of(List<Double> samples) {
+            double[] sorted = samples.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+            int middle = sorted.length / 2;
+            double median = sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+            return new Result(samples, sorted[0], median, sorted[sorted.length - 1]);
+        }
+    }
+
+    record Report(Instant finishedAt, String javaVersion, int runs, Map<String, Result> modes) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String classpath = System.getProperty("startup.app-classpath");
+        if (classpath == null || classpath.isBlank())
+            throw new IllegalArgumentException("startup.app-classpath must list the application jar and its dependencies");
+        int runs = Integer.parseInt(System.getProperty("startup.runs", "5"));
+        List<Mode> modes = Arrays.stream(System.getProperty("startup.modes", "jvm,cds,aot,aot-cds").split(","))
+                .filter(mode -> !mode.isBlank())
+                .map(Mode::of)
+                .toList();
+        StartupBenchmark benchmark = new StartupBenchmark(classpath,
+                Path.of(System.getProperty("startup.directory", "target/startup")));
+
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (Mode mode : modes) {
+            if (mode.cds)
+                benchmark.train(mode);
+            List<Double> samples = new ArrayList<>(runs);
+            for (int run = 1; run <= runs; run++)
+                samples.add(benchmark.measure(mode, run));
+            Result result = Result.of(samples);
+            results.put(mode.key(), result);
+            System.out.printf("%-8s min %8.1f ms  median %8.1f ms  max %8.1f ms%n", mode.key(), result.min(), result.median(), result.max());
+        }
+
+        Report report = new Report(Instant.now(), System.getProperty("java.version"), runs, results);
+        Path file = benchmark.directory.resolve("startup-report.json");
+        OBJECT_MAPPER.writerWithDefaultPrettyPrinter()
+                .writeValue(file.toFile(), report);
+        System.out.println("Report written to " + file.toAbsolutePath());
+    }
+
+    private void train(Mode mode) throws IOException, InterruptedException {
+        Path archive = archive(mode);
+        Files.deleteIfExists(archive);
+        // the archive is written when the JVM exits, so stop it gracefully once the first request has been served
+        timeToFirstResponse(mode, "-XX:ArchiveClassesAtExit=" + archive, directory.resolve(mode.key() + "-training.log"));
+        if (!Files.exists(archive))
+            throw new IllegalStateException("Training run for " + mode.key() + " did not write " + archive);
+    }
+
+    private double measure(Mode mode, int run) throws IOException, InterruptedException {
+        String jvmOption = mode.cds ? "-XX:SharedArchiveFile=" + archive(mode) : "-Xshare:auto";
+        return timeToFirstResponse(mode, jvmOption, directory.resolve(mode.key() + "-" + run + ".log"));
+    }
+
+    private double timeToFirstResponse(Mode mode, String jvmOption, Path log) throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                jvmOption,
+                "-Dspring.aot.enabled=" + mode.aot,
+                "-cp", classpath,
+                MAIN_CLASS,
+                "--server.port=" + port));
+        URI employees = URI.create("http://localhost:" + port + "/api/employees");
+        // the GET needs a row to find, so the employee is created as soon as the server listens
+        HttpRequest create = HttpRequest.newBuilder(employees)
+                .timeout(Duration.ofSeconds(5))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"firstName\":\"Startup\",\"lastName\":\"Benchmark\",\"email\":\"startup@gmail.com\"}"))
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        try {
+            long deadline = start + STARTUP_TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive())
+                    throw new IllegalStateException(mode.key() + " exited with status " + process.exitValue() + ", see " + log);
+                try {
+                    HttpResponse<String> created = client.send(create, HttpResponse.BodyHandlers.ofString());
+                    if (created.statusCode() == 201) {
+                        long id = OBJECT_MAPPER.readTree(created.body()).path("id").asLong();
+                        HttpRequest get = HttpRequest.newBuilder(URI.create(employees + "/" + id)).timeout(Duration.ofSeconds(5)).GET().build();
+                        if (client.send(get, HttpResponse.BodyHandlers.discarding()).statusCode() == 200)
+                            return (System.nanoTime() - start) / 1e6;
+                        throw new IllegalStateException(mode.key() + " could not read back employee " + id + ", see " + log);
+                    }
+                } catch (IOException e) {
+                    // not listening yet
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException(mode.key() + " did not answer " + employees + " within " + STARTUP_TIMEOUT + ", see " + log);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS))
+                process.destroyForcibly().waitFor();
+        }
+    }
+
+    private Path archive(Mode mode) {
+        return directory.resolve(mode.key() + ".jsa");
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
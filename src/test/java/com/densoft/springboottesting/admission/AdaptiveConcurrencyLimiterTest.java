@@ -0,0 +1,128 @@
+package com.densoft.springboottesting.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(1);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicBoolean congested = new AtomicBoolean();
+    private long nanoTime;
+
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit, Duration targetLatency) {
+        return new AdaptiveConcurrencyLimiter("read", initialLimit, 2, 20, targetLatency, 0.5, congested::get,
+                meterRegistry, () -> nanoTime);
+    }
+
+    // junit test for rejecting requests over the limit
+    @DisplayName("junit test for rejecting requests over the limit")
+    @Test
+    void givenLimitReached_whenTryAcquire_thenRejectAndCount() {
+        //given  - precondition or setup
+        AdaptiveConcurrencyLimiter limiter = limiter(2, Duration.ofMillis(100));
+        //when - action or the behaviour that we are going to test
+        boolean first = limiter.tryAcquire();
+        boolean second = limiter.tryAcquire();
+        boolean third = limiter.tryAcquire();
+        //then - verify the output
+        assertTrue(first);
+        assertTrue(second);
+        assertFalse(third);
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(1.0, meterRegistry.get("employees.admission.rejected").tag("kind", "read").counter().count());
+    }
+
+    // junit test for multiplicative decrease on slow responses
+    @DisplayName("junit test for multiplicative decrease on slow responses")
+    @Test
+    void givenSlowResponse_whenRelease_thenHalveLimit() {
+        //given  - precondition or setup
+        AdaptiveConcurrencyLimiter limiter = limiter(16, Duration.ofMillis(100));
+        limiter.tryAcquire();
+        //when - action or the behaviour that we are going to test
+        limiter.release(SLOW);
+        //then - verify the output
+        assertEquals(8, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    // junit test for decreasing at most once per target latency
+    @DisplayName("junit test for decreasing at most once per target latency")
+    @Test
+    void givenSlowResponses_whenReleaseWithinTargetLatency_thenHalveLimitOnce() {
+        //given  - precondition or setup
+        AdaptiveConcurrencyLimiter limiter = limiter(16, Duration.ofMillis(100));
+        for (int i = 0; i < 3; i++)
+            limiter.tryAcquire();
+        //when - action or the behaviour that we are going to test
+        limiter.release(SLOW);
+        nanoTime += TimeUnit.MILLISECONDS.toNanos(99);
+        limiter.release(SLOW);
+        int limitWithinTargetLatency = limiter.getLimit();
+        nanoTime += TimeUnit.MILLISECONDS.toNanos(1);
+        limiter.release(SLOW);
+        //then - verify the output
+        assertEquals(8, limitWithinTargetLatency);
+        assertEquals(4, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    // junit test for backing off while threads wait for a connection
+    @DisplayName("junit test for backing off while threads wait for a connection")
+    @Test
+    void givenPoolCongested_whenReleaseFastResponse_thenDecreaseLimitToMinimum() {
+        //given  - precondition or setup
+        AdaptiveConcurrencyLimiter limiter = limiter(3, Duration.ZERO);
+        congested.set(true);
+        //when - action or the behaviour that we are going to test
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire();
+            limiter.release(0);
+        }
+        //then - verify the output
+        assertEquals(2, limiter.getLimit());
+    }
+
+    // junit test for additive increase while the limit is in use
+    @DisplayName("junit test for additive increase while the limit is in use")
+    @Test
+    void givenFastResponsesAtLimit_whenRelease_thenGrowLimitAdditively() {
+        //given  - precondition or setup
+        AdaptiveConcurrencyLimiter limiter = limiter(4, Duration.ofMillis(100));
+        //when - action or the behaviour that we are going to test
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 4; i++)
+                limiter.tryAcquire();
+            for (int i = 0; i < 4; i++)
+                limiter.release(FAST);
+        }
+        //then - verify the output
+        assertEquals(5, limiter.getLimit());
+        assertEquals(5.0, meterRegistry.get("employees.admission.limit").tag("kind", "read").gauge().value());
+    }
+
+    // junit test for keeping the limit while idle
+    @DisplayName("junit test for keeping the limit while mostly idle")
+    @Test
+    void givenSingleRequestsInFlight_whenRelease_thenKeepLimit() {
+        //given  - precondition or setup
+        AdaptiveConcurrencyLimiter limiter = limiter(10, Duration.ofMillis(100));
+        //when - action or the behaviour that we are going to test
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST);
+        }
+        //then - verify the output
+        assertEquals(10, limiter.getLimit());
+    }
+}
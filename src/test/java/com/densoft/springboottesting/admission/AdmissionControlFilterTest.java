@@ -0,0 +1,63 @@
+package com.densoft.springboottesting.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AdaptiveConcurrencyLimiter readLimiter;
+    private AdmissionControlFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        readLimiter = new AdaptiveConcurrencyLimiter("read", 2, 2, 2, Duration.ofMillis(100), 0.5, () -> false, meterRegistry);
+        AdaptiveConcurrencyLimiter writeLimiter = new AdaptiveConcurrencyLimiter("write", 2, 2, 2, Duration.ofMillis(100), 0.5, () -> false, meterRegistry);
+        filter = new AdmissionControlFilter(readLimiter, writeLimiter, new ObjectMapper().findAndRegisterModules(), 1,
+                List.of("/api/employees/export", "/api/employees/changes"));
+        // exhaust the read limit
+        readLimiter.tryAcquire();
+        readLimiter.tryAcquire();
+    }
+
+    // junit test for rejecting a read over the limit
+    @DisplayName("junit test for rejecting a read over the limit")
+    @Test
+    void givenReadLimitReached_whenGetEmployees_thenReturnTooManyRequests() throws Exception {
+        //given  - precondition or setup
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        //when - action or the behaviour that we are going to test
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/employees"), response, new MockFilterChain());
+        //then - verify the output
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatus());
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+
+    // junit test for streaming endpoints bypassing the limit
+    @DisplayName("junit test for streaming endpoints bypassing the limit")
+    @Test
+    void givenReadLimitReached_whenExportEmployees_thenPassThrough() throws Exception {
+        //given  - precondition or setup
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        //when - action or the behaviour that we are going to test
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/employees/export"), response, chain);
+        //then - verify the output
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertNotNull(chain.getRequest());
+        assertEquals(2, readLimiter.getInFlight());
+    }
+}
@@ -0,0 +1,49 @@
+package com.densoft.springboottesting.admission;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+class PoolCongestionTest {
+
+    private static HikariDataSource pool(int threadsAwaitingConnection) {
+        HikariPoolMXBean mxBean = mock(HikariPoolMXBean.class);
+        given(mxBean.getThreadsAwaitingConnection()).willReturn(threadsAwaitingConnection);
+        HikariDataSource pool = mock(HikariDataSource.class);
+        given(pool.getHikariPoolMXBean()).willReturn(mxBean);
+        return pool;
+    }
+
+    // junit test for congestion on any one of several pools
+    @DisplayName("junit test for congestion on any one of several pools")
+    @Test
+    void givenWaitersOnSecondPool_whenGetAsBoolean_thenReportCongestion() {
+        //given  - precondition or setup
+        PoolCongestion congestion = PoolCongestion.of(List.of(pool(0), pool(3)));
+        //when - action or the behaviour that we are going to test
+        boolean congested = congestion.getAsBoolean();
+        //then - verify the output
+        assertTrue(congested);
+        assertEquals(2, congestion.poolCount());
+    }
+
+    // junit test for pools without waiters and non-Hikari data sources
+    @DisplayName("junit test for pools without waiters and non-Hikari data sources")
+    @Test
+    void givenNoWaiters_whenGetAsBoolean_thenReportNoCongestion() {
+        //given  - precondition or setup
+        PoolCongestion congestion = PoolCongestion.of(List.of(pool(0), mock(DataSource.class)));
+        //when - action or the behaviour that we are going to test
+        boolean congested = congestion.getAsBoolean();
+        //then - verify the output
+        assertFalse(congested);
+        assertEquals(1, congestion.poolCount());
+    }
+}
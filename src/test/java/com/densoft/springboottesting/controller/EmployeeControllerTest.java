@@ -1,6 +1,14 @@
 package com.densoft.springboottesting.controller;
 
+import com.densoft.springboottesting.dto.EmployeeBatch;
+import com.densoft.springboottesting.dto.EmployeeBatchResult;
+import com.densoft.springboottesting.dto.EmployeePage;
+import com.densoft.springboottesting.dto.EmployeePatch;
+import com.densoft.springboottesting.dto.EmployeeView;
+import com.densoft.springboottesting.exception.APIException;
+import com.densoft.springboottesting.fixtures.EmployeeFixture;
 import com.densoft.springboottesting.model.Employee;
+import com.densoft.springboottesting.service.EmployeeChangeFeed;
 import com.densoft.springboottesting.service.EmployeeService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,19 +17,22 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import static com.densoft.springboottesting.fixtures.EmployeeFixture.*;
 import static org.hamcrest.CoreMatchers.is;
 import static org.mockito.BDDMockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest
 class EmployeeControllerTest {
@@ -31,17 +42,15 @@ class EmployeeControllerTest {
 
     @MockBean
     private EmployeeService employeeService;
+    @MockBean
+    private EmployeeChangeFeed employeeChangeFeed;
     @Autowired
     private ObjectMapper objectMapper;
     private Employee employee;
 
     @BeforeEach
     void setUp() {
-        employee = Employee.builder()
-                .firstName("dennis")
-                .lastName("githinji")
-                .email("wakahiad@gmail.com")
-                .build();
+        employee = employee(DENNIS);
     }
 
     // junit test for create employee
@@ -66,27 +75,158 @@ class EmployeeControllerTest {
                 .andExpect(jsonPath("$.email", is(employee.getEmail())));
     }
 
+    // junit test for create employee with existing email
+    @DisplayName("junit test for create employee with existing email")
+    @Test
+    void givenExistingEmail_whenCreateEmployee_thenReturnBadRequest() throws Exception {
+        //given  - precondition or setup
+        given(employeeService.saveEmployee(any(Employee.class)))
+                .willThrow(new APIException("Employee already exists with given email: " + employee.getEmail()));
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("Employee already exists with given email: " + employee.getEmail())));
+    }
+
+    // junit test for create employees in bulk
+    @DisplayName("junit test for create employees in bulk")
+    @Test
+    void givenEmployeesList_whenCreateEmployees_thenReturnPerItemResults() throws Exception {
+        //given  - precondition or setup
+        List<Employee> employees = List.of(employee, employee);
+        given(employeeService.saveEmployees(anyList())).willReturn(List.of(
+                EmployeeBatchResult.created(0, employee),
+                EmployeeBatchResult.failed(1, employee, "Duplicate email in batch: " + employee.getEmail())));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employees)));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(2)))
+                .andExpect(jsonPath("$[0].status", is("CREATED")))
+                .andExpect(jsonPath("$[1].status", is("FAILED")));
+    }
+
     // junit test for get all employees
     @DisplayName("junit test for get all employees ")
     @Test
     void givenEmployeesList_whenGetAllEmployees_thenReturnEmployees() throws Exception {
         //given  - precondition or setup
-        Employee employeeTwo = Employee.builder()
-                .firstName("jane")
-                .lastName("doe")
-                .email("jane@gmail.com")
-                .build();
+        Employee employeeTwo = employee(JANE);
 
-        List<Employee> employees = List.of(employee, employeeTwo);
+        List<EmployeeView> employees = List.of(EmployeeView.of(employee), EmployeeView.of(employeeTwo));
 
-        given(employeeService.getAllEmployees()).willAnswer(invocationOnMock -> employees);
+        given(employeeService.getEmployeePage(0L, 50)).willReturn(new EmployeePage(employees, null));
 
         //when - action or the behaviour that we are going to test
         ResultActions response = mockMvc.perform(get("/api/employees"));
         //then - verify the output
         response.andDo(print())
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.size()", is(employees.size())));
+                .andExpect(jsonPath("$.content.size()", is(employees.size())));
+    }
+
+    // junit test for get employees page after cursor
+    @DisplayName("junit test for get employees page after cursor")
+    @Test
+    void givenCursorAndLimit_whenGetAllEmployees_thenReturnPageWithNextCursor() throws Exception {
+        //given  - precondition or setup
+        given(employeeService.getEmployeePage(10L, 1)).willReturn(new EmployeePage(List.of(EmployeeView.of(employee)), 11L));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees")
+                .param("after", "10")
+                .param("limit", "1"));
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.size()", is(1)))
+                .andExpect(jsonPath("$.nextCursor", is(11)));
+    }
+
+    // junit test for get employees by ids
+    @DisplayName("junit test for get employees by ids")
+    @Test
+    void givenEmployeeIds_whenGetEmployeesByIds_thenReturnFoundAndMissing() throws Exception {
+        //given  - precondition or setup
+        given(employeeService.getEmployeesByIds(List.of(1L, 2L))).willReturn(new EmployeeBatch(List.of(EmployeeView.of(employee)), List.of(2L)));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees").param("ids", "1,2"));
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.employees.size()", is(1)))
+                .andExpect(jsonPath("$.missingIds[0]", is(2)));
+    }
+
+    // junit test for get employees by first and last name
+    @DisplayName("junit test for get employees by first and last name")
+    @Test
+    void givenNames_whenGetEmployeesByNames_thenReturnMatchingEmployees() throws Exception {
+        //given  - precondition or setup
+        given(employeeService.getEmployeesByNames("dennis", "githinji")).willReturn(List.of(EmployeeView.of(employee)));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees")
+                .param("firstName", "dennis")
+                .param("lastName", "githinji"));
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(jsonPath("$[0].email", is(employee.getEmail())));
+    }
+
+    // junit test for typeahead search
+    @DisplayName("junit test for typeahead search")
+    @Test
+    void givenQuery_whenSearchEmployees_thenReturnRankedEmployees() throws Exception {
+        //given  - precondition or setup
+        given(employeeService.searchEmployees("den", 5)).willReturn(List.of(EmployeeView.of(employee)));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees/search")
+                .param("q", "den")
+                .param("limit", "5"));
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(jsonPath("$[0].firstName", is(employee.getFirstName())));
+    }
+
+    // junit test for export employees as ndjson
+    @DisplayName("junit test for export employees as ndjson")
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenEmployees_whenExportAsNdjson_thenStreamOneJsonObjectPerLine() throws Exception {
+        //given  - precondition or setup
+        willAnswer(invocationOnMock -> {
+            Consumer<EmployeeView> consumer = invocationOnMock.getArgument(0);
+            consumer.accept(EmployeeView.of(employee));
+            consumer.accept(EmployeeView.of(employee));
+            return null;
+        }).given(employeeService).exportEmployees(any(Consumer.class));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees/export")
+                .accept(MediaType.APPLICATION_NDJSON));
+        //then - verify the output
+        String line = objectMapper.writeValueAsString(EmployeeView.of(employee));
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(line + "\n" + line + "\n"));
     }
 
     // junit test for get employee by id
@@ -95,7 +235,7 @@ class EmployeeControllerTest {
     void givenEmployeeId_whenGetEmployeeById_thenReturnEmployee() throws Exception {
         //given  - precondition or setup
         long employeeId = 1L;
-        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(employee));
+        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(EmployeeView.of(employee)));
 
         //when - action or the behaviour that we are going to test
         ResultActions response = mockMvc.perform(get("/api/employees/{id}", employeeId));
@@ -126,12 +266,8 @@ class EmployeeControllerTest {
     void givenUpdatedEmployee_whenUpdateEmployee_thenReturnEmployeeObject() throws Exception {
         //given  - precondition or setup
         long employeeId = 1L;
-        Employee updatedEmployee = Employee.builder()
-                .firstName("denno")
-                .lastName("gg")
-                .email("denno@gmail.com")
-                .build();
-        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(employee));
+        Employee updatedEmployee = employee(DENNO);
+        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(EmployeeView.of(employee)));
         given(employeeService.updateEmployee(any(Employee.class))).willAnswer(invocationOnMock -> invocationOnMock.getArgument(0));
 
         //when - action or the behaviour that we are going to test
@@ -150,11 +286,7 @@ class EmployeeControllerTest {
     void givenUpdatedEmployee_whenUpdateEmployee_thenReturnEmployeeObjectNotFound() throws Exception {
         //given  - precondition or setup
         long employeeId = 1L;
-        Employee updatedEmployee = Employee.builder()
-                .firstName("denno")
-                .lastName("gg")
-                .email("denno@gmail.com")
-                .build();
+        Employee updatedEmployee = employee(DENNO);
         given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.empty());
 
         //when - action or the behaviour that we are going to test
@@ -166,6 +298,81 @@ class EmployeeControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    // junit test for patch employee
+    @DisplayName("junit test for patch employee")
+    @Test
+    void givenEmployeePatch_whenPatchEmployee_thenReturnNoContent() throws Exception {
+        //given  - precondition or setup
+        long employeeId = 1L;
+        EmployeePatch patch = new EmployeePatch("denno", null, null, 0L);
+        given(employeeService.patchEmployee(employeeId, patch)).willReturn(true);
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(patch)));
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isNoContent());
+    }
+
+    // junit test for conditional get employee by id
+    @DisplayName("junit test for conditional get employee by id not modified")
+    @Test
+    void givenMatchingETag_whenGetEmployeeById_thenReturnNotModifiedWithoutLoadingEmployee() throws Exception {
+        //given  - precondition or setup
+        long employeeId = 1L;
+        given(employeeService.getEmployeeVersion(employeeId)).willReturn(Optional.of(3L));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\""));
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(content().string(""));
+        then(employeeService).should(never()).getEmployeeById(employeeId);
+    }
+
+    // junit test for conditional update employee with stale etag
+    @DisplayName("junit test for conditional update employee with stale etag")
+    @Test
+    void givenStaleETag_whenUpdateEmployee_thenReturnPreconditionFailed() throws Exception {
+        //given  - precondition or setup
+        long employeeId = 1L;
+        given(employeeService.replaceEmployee(eq(employeeId), eq(2L), any(Employee.class)))
+                .willThrow(new ObjectOptimisticLockingFailureException(Employee.class, employeeId));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(put("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_MATCH, "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    // junit test for patch employee with stale version
+    @DisplayName("junit test for patch employee with stale version")
+    @Test
+    void givenStaleVersion_whenPatchEmployee_thenReturnConflict() throws Exception {
+        //given  - precondition or setup
+        long employeeId = 1L;
+        EmployeePatch patch = new EmployeePatch("denno", null, null, 0L);
+        given(employeeService.patchEmployee(employeeId, patch))
+                .willThrow(new ObjectOptimisticLockingFailureException(Employee.class, employeeId));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(patch)));
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isConflict());
+    }
+
     // junit test for delete employee
     @DisplayName("junit test for delete employee ")
     @Test
@@ -181,4 +388,26 @@ class EmployeeControllerTest {
                 .andExpect(jsonPath("$", is("Deleted successfully")));
     }
 
-}
\ No newline at end of file
+    // junit test for delete employees in bulk
+    @DisplayName("junit test for delete employees in bulk")
+    @Test
+    void givenEmployeeIds_whenDeleteEmployees_thenReturnDeletedCount() throws Exception {
+        //given  - precondition or setup
+        given(employeeService.deleteEmployees(List.of(1L, 2L, 3L))).willReturn(2);
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(delete("/api/employees").param("ids", "1,2,3"));
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested", is(3)))
+                .andExpect(jsonPath("$.deleted", is(2)));
+    }
+
+    private static Employee employee(EmployeeFixture fixture) {
+        return Employee.builder()
+                .firstName(fixture.firstName())
+                .lastName(fixture.lastName())
+                .email(fixture.email())
+                .build();
+    }
+}
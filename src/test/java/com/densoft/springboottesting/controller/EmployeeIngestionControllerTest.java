@@ -0,0 +1,105 @@
+package com.densoft.springboottesting.controller;
+
+import com.densoft.springboottesting.dto.IngestionStatus;
+import com.densoft.springboottesting.exception.TooManyRequestsException;
+import com.densoft.springboottesting.model.Employee;
+import com.densoft.springboottesting.service.EmployeeIngestionQueue;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.BDDMockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = EmployeeIngestionController.class, properties = "employees.ingestion.enabled=true")
+class EmployeeIngestionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private EmployeeIngestionQueue employeeIngestionQueue;
+    @Autowired
+    private ObjectMapper objectMapper;
+    private Employee employee;
+
+    @BeforeEach
+    void setUp() {
+        employee = Employee.builder()
+                .firstName("dennis")
+                .lastName("githinji")
+                .email("wakahiad@gmail.com")
+                .build();
+    }
+
+    // junit test for accepting an asynchronous create
+    @DisplayName("junit test for accepting an asynchronous create")
+    @Test
+    void givenEmployeeObject_whenIngestEmployee_thenReturnAcceptedWithLocation() throws Exception {
+        //given  - precondition or setup
+        UUID trackingId = UUID.randomUUID();
+        given(employeeIngestionQueue.submit(any(Employee.class))).willReturn(IngestionStatus.queued(trackingId));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees/ingest")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, "http://localhost/api/employees/ingest/" + trackingId))
+                .andExpect(jsonPath("$.trackingId", is(trackingId.toString())))
+                .andExpect(jsonPath("$.state", is("QUEUED")));
+    }
+
+    // junit test for rejecting an asynchronous create when the queue is full
+    @DisplayName("junit test for rejecting an asynchronous create when the queue is full")
+    @Test
+    void givenFullQueue_whenIngestEmployee_thenReturnTooManyRequestsWithRetryAfter() throws Exception {
+        //given  - precondition or setup
+        given(employeeIngestionQueue.submit(any(Employee.class)))
+                .willThrow(new TooManyRequestsException("Ingestion queue is full, retry later", 1));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees/ingest")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.message", is("Ingestion queue is full, retry later")));
+    }
+
+    // junit test for get ingestion status not found
+    @DisplayName("junit test for get ingestion status not found")
+    @Test
+    void givenUnknownTrackingId_whenGetIngestionStatus_thenReturnNotFound() throws Exception {
+        //given  - precondition or setup
+        UUID trackingId = UUID.randomUUID();
+        given(employeeIngestionQueue.status(trackingId)).willReturn(Optional.empty());
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees/ingest/{trackingId}", trackingId));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,84 @@
+package com.densoft.springboottesting.integration;
+
+import com.densoft.springboottesting.model.Employee;
+import com.densoft.springboottesting.repository.EmployeeRepository;
+import com.densoft.springboottesting.service.EmployeeService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class EmployeeCacheITests {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Employee employee;
+
+    @BeforeEach
+    void setUp() {
+        employeeRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        employee = Employee.builder()
+                .firstName("dennis")
+                .lastName("githinji")
+                .email("wakahiad@gmail.com")
+                .build();
+    }
+
+    // junit test for loading an employee from the second-level cache
+    @DisplayName("junit test for loading an employee from the second-level cache")
+    @Test
+    void givenCachedEmployee_whenFindById_thenHitSecondLevelCache() {
+        //given  - precondition or setup
+        long id = employeeRepository.save(employee).getId();
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+        //when - action or the behaviour that we are going to test
+        employeeRepository.findById(id);
+        employeeRepository.findById(id);
+        //then - verify the output
+        assertEquals(1, statistics.getSecondLevelCacheMissCount());
+        assertEquals(1, statistics.getSecondLevelCachePutCount());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+        assertEquals(1, statistics.getEntityLoadCount());
+    }
+
+    // junit test for name lookups served from the query cache until the table is written
+    @DisplayName("junit test for name lookups served from the query cache until the table is written")
+    @Test
+    void givenCachedNameLookup_whenEmployeeSaved_thenQueryCacheInvalidated() {
+        //given  - precondition or setup
+        employeeService.saveEmployee(employee);
+        employeeService.getEmployeesByNames("dennis", "githinji");
+        //when - action or the behaviour that we are going to test
+        int cached = employeeService.getEmployeesByNames("dennis", "githinji").size();
+        employeeService.saveEmployee(Employee.builder()
+                .firstName("dennis")
+                .lastName("githinji")
+                .email("dennis@gmail.com")
+                .build());
+        int afterWrite = employeeService.getEmployeesByNames("dennis", "githinji").size();
+        //then - verify the output
+        assertEquals(1, cached);
+        assertEquals(2, afterWrite);
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(2, statistics.getQueryCacheMissCount());
+    }
+}
@@ -1,26 +1,35 @@
 package com.densoft.springboottesting.integration;
 
+import com.densoft.springboottesting.dto.EmployeePatch;
+import com.densoft.springboottesting.fixtures.EmployeeFixture;
 import com.densoft.springboottesting.model.Employee;
 import com.densoft.springboottesting.repository.EmployeeRepository;
+import com.densoft.springboottesting.service.EmployeeServiceImpl;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
 import java.util.List;
 
+import static com.densoft.springboottesting.fixtures.EmployeeFixture.*;
 import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
 @AutoConfigureMockMvc
@@ -32,18 +41,21 @@ class EmployeeControllerITests {
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     @Autowired
     private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
     private Employee employee;
 
     @BeforeEach
     void setUp() {
         employeeRepository.deleteAll();
-        employee = Employee.builder()
-                .firstName("dennis")
-                .lastName("githinji")
-                .email("wakahiad@gmail.com")
-                .build();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        employee = employee(DENNIS);
     }
 
     // junit test for create employee
@@ -68,16 +80,56 @@ class EmployeeControllerITests {
     }
 
 
+    // junit test for create employee ignores a client-supplied id
+    @DisplayName("junit test for create employee ignores a client-supplied id")
+    @Test
+    void givenEmployeeWithId_whenCreateEmployee_thenStoreSequenceId() throws Exception {
+        //given  - precondition or setup
+        // far above anything the sequence hands out in this test run
+        employee.setId(987_654_321L);
+
+        //when - action or the behaviour that we are going to test
+        String body = mockMvc.perform(post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        //then - verify the output
+        long storedId = objectMapper.readTree(body).get("id").asLong();
+        assertNotEquals(987_654_321L, storedId);
+        assertTrue(employeeRepository.findById(storedId).isPresent());
+        assertTrue(employeeRepository.findById(987_654_321L).isEmpty());
+    }
+
+    // junit test for create employee with existing email
+    @DisplayName("junit test for create employee with existing email")
+    @Test
+    void givenExistingEmail_whenCreateEmployee_thenReturnBadRequest() throws Exception {
+        //given  - precondition or setup
+        employeeRepository.save(Employee.builder()
+                .firstName("jane")
+                .lastName("doe")
+                .email(employee.getEmail())
+                .build());
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("Employee already exists with given email: " + employee.getEmail())));
+    }
+
     // junit test for get all employees
     @DisplayName("junit test for get all employees ")
     @Test
     void givenEmployeesList_whenGetAllEmployees_thenReturnEmployees() throws Exception {
         //given  - precondition or setup
-        Employee employeeTwo = Employee.builder()
-                .firstName("jane")
-                .lastName("doe")
-                .email("jane@gmail.com")
-                .build();
+        Employee employeeTwo = employee(JANE);
 
         List<Employee> employees = List.of(employee, employeeTwo);
 
@@ -88,10 +140,59 @@ class EmployeeControllerITests {
         //then - verify the output
         response.andDo(print())
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.size()", is(employees.size())));
+                .andExpect(jsonPath("$.content.size()", is(employees.size())));
+    }
+
+    // junit test for get employees page by page
+    @DisplayName("junit test for get employees page by page")
+    @Test
+    void givenEmployeesList_whenGetEmployeesWithLimit_thenReturnPagesInIdOrder() throws Exception {
+        //given  - precondition or setup
+        Employee employeeTwo = employee(JANE);
+
+        List<Employee> savedEmployees = employeeRepository.saveAll(List.of(employee, employeeTwo));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions firstPage = mockMvc.perform(get("/api/employees").param("limit", "1"));
+        ResultActions secondPage = mockMvc.perform(get("/api/employees")
+                .param("after", String.valueOf(savedEmployees.get(0).getId()))
+                .param("limit", "1"));
+        //then - verify the output
+        firstPage.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.size()", is(1)))
+                .andExpect(jsonPath("$.content[0].email", is(employee.getEmail())))
+                .andExpect(jsonPath("$.nextCursor", is((int) savedEmployees.get(0).getId())));
+        secondPage.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].email", is(employeeTwo.getEmail())))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
     }
 
 
+    // junit test for export employees as csv
+    @DisplayName("junit test for export employees as csv")
+    @Test
+    void givenEmployeesList_whenExportAsCsv_thenStreamAllRows() throws Exception {
+        //given  - precondition or setup
+        Employee employeeTwo = Employee.builder()
+                .firstName("jane")
+                .lastName("doe, jr")
+                .email("jane@gmail.com")
+                .build();
+        List<Employee> savedEmployees = employeeRepository.saveAll(List.of(employee, employeeTwo));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees/export")
+                .accept("text/csv"));
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().string("id,firstName,lastName,email\n"
+                        + savedEmployees.get(0).getId() + ",dennis,githinji,wakahiad@gmail.com\n"
+                        + savedEmployees.get(1).getId() + ",jane,\"doe, jr\",jane@gmail.com\n"));
+    }
+
     // junit test for get employee by id
     @DisplayName("junit test for get employee by id ")
     @Test
@@ -107,6 +208,61 @@ class EmployeeControllerITests {
                 .andExpect(jsonPath("$.email", is(employee.getEmail())));
     }
 
+    // junit test for timing service methods
+    @DisplayName("junit test for timing service methods")
+    @Test
+    void givenEmployeeId_whenGetEmployeeById_thenRecordServiceTimer() throws Exception {
+        //given  - precondition or setup
+        Employee savedEmployee = employeeRepository.save(employee);
+        Timer timer = serviceTimer("getEmployeeById");
+        long before = timer != null ? timer.count() : 0;
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees/{id}", savedEmployee.getId()));
+        //then - verify the output
+        response.andExpect(status().isOk());
+        timer = serviceTimer("getEmployeeById");
+        assertNotNull(timer);
+        assertEquals(before + 1, timer.count());
+    }
+
+    // junit test for counting handled api exceptions
+    @DisplayName("junit test for counting handled api exceptions")
+    @Test
+    void givenExistingEmail_whenCreateEmployee_thenCountApiException() throws Exception {
+        //given  - precondition or setup
+        employeeRepository.save(Employee.builder()
+                .firstName("jane")
+                .lastName("doe")
+                .email(employee.getEmail())
+                .build());
+        Counter counter = apiExceptions();
+        double before = counter != null ? counter.count() : 0;
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        //then - verify the output
+        response.andExpect(status().isBadRequest());
+        counter = apiExceptions();
+        assertNotNull(counter);
+        assertEquals(before + 1, counter.count());
+    }
+
+    private Timer serviceTimer(String method) {
+        return meterRegistry.find("employees.service")
+                .tags("class", EmployeeServiceImpl.class.getName(), "method", method, "exception", "none")
+                .timer();
+    }
+
+    private Counter apiExceptions() {
+        return meterRegistry.find("employees.api.exceptions")
+                .tags("exception", "APIException", "status", "400", "method", "POST", "uri", "/api/employees")
+                .counter();
+    }
+
     // junit test for get employee by id not found
     @DisplayName("junit test for get employee by id  not found")
     @Test
@@ -126,11 +282,7 @@ class EmployeeControllerITests {
     @Test
     void givenUpdatedEmployee_whenUpdateEmployee_thenReturnEmployeeObject() throws Exception {
         //given  - precondition or setup
-        Employee updatedEmployee = Employee.builder()
-                .firstName("denno")
-                .lastName("gg")
-                .email("denno@gmail.com")
-                .build();
+        Employee updatedEmployee = employee(DENNO);
 
         Employee savedEmployee = employeeRepository.save(employee);
 
@@ -144,17 +296,34 @@ class EmployeeControllerITests {
                 .andExpect(jsonPath("$.firstName", is(updatedEmployee.getFirstName())));
     }
 
+    // junit test for get employee after update through the cache
+    @DisplayName("junit test for get employee after update through the cache")
+    @Test
+    void givenCachedEmployee_whenUpdateEmployee_thenGetReturnsUpdatedEmployee() throws Exception {
+        //given  - precondition or setup
+        Employee savedEmployee = employeeRepository.save(employee);
+        mockMvc.perform(get("/api/employees/{id}", savedEmployee.getId()))
+                .andExpect(jsonPath("$.firstName", is(employee.getFirstName())));
+        Employee updatedEmployee = employee(DENNO);
+        mockMvc.perform(put("/api/employees/{id}", savedEmployee.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updatedEmployee)));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees/{id}", savedEmployee.getId()));
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName", is(updatedEmployee.getFirstName())));
+    }
+
     // junit test for update employee not found
     @DisplayName("junit test for update employee not found")
     @Test
     void givenUpdatedEmployee_whenUpdateEmployee_thenReturnEmployeeObjectNotFound() throws Exception {
         //given  - precondition or setup
         long employeeId = 1L;
-        Employee updatedEmployee = Employee.builder()
-                .firstName("denno")
-                .lastName("gg")
-                .email("denno@gmail.com")
-                .build();
+        Employee updatedEmployee = employee(DENNO);
 
 
         //when - action or the behaviour that we are going to test
@@ -167,6 +336,95 @@ class EmployeeControllerITests {
     }
 
 
+    // junit test for typeahead search following creates and deletes
+    @DisplayName("junit test for typeahead search following creates and deletes")
+    @Test
+    void givenCreatedEmployee_whenSearchBeforeAndAfterDelete_thenIndexFollowsWrites() throws Exception {
+        //given  - precondition or setup
+        Employee zebediah = Employee.builder()
+                .firstName("Zebediah")
+                .lastName("Kamau")
+                .email("zebediah@gmail.com")
+                .build();
+        String created = mockMvc.perform(post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(zebediah)))
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readValue(created, Employee.class).getId();
+
+        //when - action or the behaviour that we are going to test
+        ResultActions found = mockMvc.perform(get("/api/employees/search").param("q", "zeb kam"));
+        mockMvc.perform(delete("/api/employees/{id}", id));
+        ResultActions afterDelete = mockMvc.perform(get("/api/employees/search").param("q", "zeb"));
+        //then - verify the output
+        found.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(jsonPath("$[0].email", is(zebediah.getEmail())));
+        afterDelete.andDo(print())
+                .andExpect(jsonPath("$.size()", is(0)));
+    }
+
+    // junit test for conditional get then conditional update
+    @DisplayName("junit test for conditional get then conditional update")
+    @Test
+    void givenETag_whenConditionalGetAndPut_thenNotModifiedThenPreconditionFailed() throws Exception {
+        //given  - precondition or setup
+        Employee savedEmployee = employeeRepository.save(employee);
+        String etag = mockMvc.perform(get("/api/employees/{id}", savedEmployee.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Employee updatedEmployee = employee(DENNO);
+
+        //when - action or the behaviour that we are going to test
+        ResultActions notModified = mockMvc.perform(get("/api/employees/{id}", savedEmployee.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, etag));
+        ResultActions updated = mockMvc.perform(put("/api/employees/{id}", savedEmployee.getId())
+                .header(HttpHeaders.IF_MATCH, etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updatedEmployee)));
+        ResultActions stale = mockMvc.perform(put("/api/employees/{id}", savedEmployee.getId())
+                .header(HttpHeaders.IF_MATCH, etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updatedEmployee)));
+        //then - verify the output
+        notModified.andDo(print())
+                .andExpect(status().isNotModified());
+        updated.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.firstName", is(updatedEmployee.getFirstName())));
+        stale.andDo(print())
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(get("/api/employees/{id}", savedEmployee.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName", is(updatedEmployee.getFirstName())));
+    }
+
+    // junit test for patch employee with current then stale version
+    @DisplayName("junit test for patch employee with current then stale version")
+    @Test
+    void givenEmployeeVersion_whenPatchTwice_thenSecondPatchConflicts() throws Exception {
+        //given  - precondition or setup
+        Employee savedEmployee = employeeRepository.save(employee);
+        EmployeePatch patch = new EmployeePatch("denno", null, null, savedEmployee.getVersion());
+
+        //when - action or the behaviour that we are going to test
+        ResultActions first = mockMvc.perform(patch("/api/employees/{id}", savedEmployee.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(patch)));
+        ResultActions second = mockMvc.perform(patch("/api/employees/{id}", savedEmployee.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(patch)));
+        //then - verify the output
+        first.andDo(print())
+                .andExpect(status().isNoContent());
+        second.andDo(print())
+                .andExpect(status().isConflict());
+        mockMvc.perform(get("/api/employees/{id}", savedEmployee.getId()))
+                .andExpect(jsonPath("$.firstName", is("denno")))
+                .andExpect(jsonPath("$.lastName", is(employee.getLastName())));
+    }
+
     // junit test for delete employee
     @DisplayName("junit test for delete employee ")
     @Test
@@ -181,4 +439,11 @@ class EmployeeControllerITests {
                 .andExpect(jsonPath("$", is("Deleted successfully")));
     }
 
+    private static Employee employee(EmployeeFixture fixture) {
+        return Employee.builder()
+                .firstName(fixture.firstName())
+                .lastName(fixture.lastName())
+                .email(fixture.email())
+                .build();
+    }
 }
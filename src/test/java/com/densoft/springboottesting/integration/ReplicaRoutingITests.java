@@ -0,0 +1,175 @@
+package com.densoft.springboottesting.integration;
+
+import com.densoft.springboottesting.dto.EmployeeView;
+import com.densoft.springboottesting.model.Employee;
+import com.densoft.springboottesting.repository.EmployeeRepository;
+import com.densoft.springboottesting.routing.ReadYourWritesFilter;
+import com.densoft.springboottesting.routing.ReplicaRoutingDataSource;
+import com.densoft.springboottesting.service.EmployeeService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// H2 has no replication, so both replicas are separate pools on the primary's in-memory database
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replica-routing-test;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "employees.datasource.replicas.enabled=true",
+        "employees.datasource.replicas.urls=jdbc:h2:mem:replica-routing-test;DB_CLOSE_DELAY=-1,"
+                + "jdbc:h2:mem:replica-routing-test;DB_CLOSE_DELAY=-1"})
+@AutoConfigureMockMvc
+class ReplicaRoutingITests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Employee employee;
+
+    @BeforeEach
+    void setUp() {
+        employeeRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        employee = employeeRepository.save(Employee.builder()
+                .firstName("dennis")
+                .lastName("githinji")
+                .email("wakahiad@gmail.com")
+                .build());
+    }
+
+    private double routed(String access, String target) {
+        return meterRegistry.get("employees.datasource.routed")
+                .tag("access", access)
+                .tag("target", target)
+                .counter()
+                .count();
+    }
+
+    // junit test for reading an employee from a replica
+    @DisplayName("junit test for reading an employee from a replica")
+    @Test
+    void givenReplicas_whenGetEmployeeById_thenReadFromReplica() {
+        //given  - precondition or setup
+        double replicaReads = routed("read", "replica");
+        double primaryReads = routed("read", "primary");
+        //when - action or the behaviour that we are going to test
+        Optional<EmployeeView> found = employeeService.getEmployeeById(employee.getId());
+        //then - verify the output
+        assertTrue(found.isPresent());
+        assertEquals(employee.getEmail(), found.get().email());
+        assertEquals(replicaReads + 1, routed("read", "replica"));
+        assertEquals(primaryReads, routed("read", "primary"));
+    }
+
+    // junit test for reading an employee from the primary after a write
+    @DisplayName("junit test for reading an employee from the primary after a write")
+    @Test
+    void givenPrimaryRequired_whenGetEmployeeById_thenReadFromPrimary() {
+        //given  - precondition or setup
+        double replicaReads = routed("read", "replica");
+        double primaryReads = routed("read", "primary");
+        ReplicaRoutingDataSource.requirePrimary();
+        //when - action or the behaviour that we are going to test
+        Optional<EmployeeView> found;
+        try {
+            found = employeeService.getEmployeeById(employee.getId());
+        } finally {
+            ReplicaRoutingDataSource.clearPrimaryRequirement();
+        }
+        //then - verify the output
+        assertTrue(found.isPresent());
+        assertEquals(replicaReads, routed("read", "replica"));
+        assertEquals(primaryReads + 1, routed("read", "primary"));
+    }
+
+    // junit test for sending writes to the primary
+    @DisplayName("junit test for sending writes to the primary")
+    @Test
+    void givenReplicas_whenSaveEmployee_thenWriteToPrimary() {
+        //given  - precondition or setup
+        double writes = routed("write", "primary");
+        double replicaReads = routed("read", "replica");
+        //when - action or the behaviour that we are going to test
+        employeeService.saveEmployee(Employee.builder()
+                .firstName("jane")
+                .lastName("doe")
+                .email("jane@gmail.com")
+                .build());
+        //then - verify the output
+        assertTrue(routed("write", "primary") > writes);
+        assertEquals(replicaReads, routed("read", "replica"));
+    }
+
+    // junit test for reading from the primary after a write by the same client
+    @DisplayName("junit test for reading from the primary after a write by the same client")
+    @Test
+    void givenReadYourWritesCookie_whenGetEmployee_thenReadFromPrimary() throws Exception {
+        //given  - precondition or setup
+        Cookie readPrimaryUntil = mockMvc.perform(post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Employee.builder()
+                                .firstName("jane")
+                                .lastName("doe")
+                                .email("jane@gmail.com")
+                                .build())))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().exists(ReadYourWritesFilter.COOKIE_NAME))
+                .andExpect(cookie().httpOnly(ReadYourWritesFilter.COOKIE_NAME, true))
+                .andReturn().getResponse().getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        double replicaReads = routed("read", "replica");
+        double primaryReads = routed("read", "primary");
+        //when - action or the behaviour that we are going to test
+        mockMvc.perform(get("/api/employees/{id}", employee.getId()).cookie(readPrimaryUntil))
+                .andExpect(status().isOk());
+        //then - verify the output
+        assertEquals(replicaReads, routed("read", "replica"));
+        assertTrue(routed("read", "primary") > primaryReads);
+    }
+
+    // junit test for reading from a replica once the read-your-writes window has passed
+    @DisplayName("junit test for reading from a replica once the read-your-writes window has passed")
+    @Test
+    void givenExpiredReadYourWritesCookie_whenGetEmployee_thenReadFromReplica() throws Exception {
+        //given  - precondition or setup
+        Cookie expired = new Cookie(ReadYourWritesFilter.COOKIE_NAME, String.valueOf(System.currentTimeMillis() - 1));
+        double replicaReads = routed("read", "replica");
+        double primaryReads = routed("read", "primary");
+        //when - action or the behaviour that we are going to test
+        mockMvc.perform(get("/api/employees/{id}", employee.getId()).cookie(expired))
+                .andExpect(status().isOk());
+        //then - verify the output
+        assertTrue(routed("read", "replica") > replicaReads);
+        assertEquals(primaryReads, routed("read", "primary"));
+    }
+}
@@ -0,0 +1,145 @@
+package com.densoft.springboottesting.integration;
+
+import com.densoft.springboottesting.dto.EmployeeBatchResult;
+import com.densoft.springboottesting.dto.EmployeePage;
+import com.densoft.springboottesting.dto.EmployeePatch;
+import com.densoft.springboottesting.dto.EmployeeView;
+import com.densoft.springboottesting.exception.APIException;
+import com.densoft.springboottesting.model.Employee;
+import com.densoft.springboottesting.service.EmployeeService;
+import com.densoft.springboottesting.sharding.ShardRoutingDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "employees.sharding.enabled=true",
+        "employees.sharding.urls=jdbc:h2:mem:shard-test-0;DB_CLOSE_DELAY=-1,"
+                + "jdbc:h2:mem:shard-test-1;DB_CLOSE_DELAY=-1,"
+                + "jdbc:h2:mem:shard-test-2;DB_CLOSE_DELAY=-1",
+        "employees.sharding.initialize-schema=true",
+        "spring.jpa.hibernate.ddl-auto=validate"})
+class ShardedEmployeeServiceITests {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private ShardRoutingDataSource shards;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        for (DataSource shard : shards.shards()) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(shard);
+            jdbcTemplate.update("DELETE FROM employees");
+            jdbcTemplate.update("DELETE FROM employee_emails");
+        }
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    private static Employee employee(String email) {
+        return Employee.builder()
+                .firstName("dennis")
+                .lastName("githinji")
+                .email(email)
+                .build();
+    }
+
+    private int count(int shard) {
+        return new JdbcTemplate(shards.shards().get(shard)).queryForObject("SELECT COUNT(*) FROM employees", Integer.class);
+    }
+
+    // junit test for spreading employees across shards and paging them in id order
+    @DisplayName("junit test for spreading employees across shards and paging them in id order")
+    @Test
+    void givenEmployeesOnSeveralShards_whenGetEmployeePage_thenReturnAllInIdOrder() {
+        //given  - precondition or setup
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 30; i++)
+            employees.add(employee("employee" + i + "@gmail.com"));
+        List<Long> ids = employeeService.saveEmployees(employees).stream()
+                .map(result -> result.employee().getId())
+                .sorted()
+                .toList();
+        //when - action or the behaviour that we are going to test
+        List<Long> pagedIds = new ArrayList<>();
+        EmployeePage page = employeeService.getEmployeePage(0, 7);
+        pagedIds.addAll(page.content().stream().map(EmployeeView::id).toList());
+        while (page.nextCursor() != null) {
+            page = employeeService.getEmployeePage(page.nextCursor(), 7);
+            pagedIds.addAll(page.content().stream().map(EmployeeView::id).toList());
+        }
+        //then - verify the output
+        assertEquals(ids, pagedIds);
+        assertEquals(30, count(0) + count(1) + count(2));
+        for (int shard = 0; shard < shards.shardCount(); shard++)
+            assertTrue(count(shard) > 0);
+        assertEquals(ids, employeeService.getAllEmployees().stream().map(EmployeeView::id).toList());
+    }
+
+    // junit test for email uniqueness across shards
+    @DisplayName("junit test for rejecting an email already stored on any shard")
+    @Test
+    void givenStoredEmail_whenSaveEmployeeWithSameEmail_thenThrowAPIException() {
+        //given  - precondition or setup
+        Employee savedEmployee = employeeService.saveEmployee(employee("wakahiad@gmail.com"));
+        //when - action or the behaviour that we are going to test
+        //then - verify the output
+        assertThrows(APIException.class, () -> employeeService.saveEmployee(employee("wakahiad@gmail.com")));
+        List<EmployeeBatchResult> results = employeeService.saveEmployees(List.of(employee("wakahiad@gmail.com"), employee("john@gmail.com")));
+        assertEquals(EmployeeBatchResult.Status.FAILED, results.get(0).status());
+        assertEquals(EmployeeBatchResult.Status.CREATED, results.get(1).status());
+        assertEquals(2, count(0) + count(1) + count(2));
+        assertTrue(employeeService.getEmployeeById(savedEmployee.getId()).isPresent());
+    }
+
+    // junit test for batched email claims with duplicates inside the batch
+    @DisplayName("junit test for batched email claims rejecting duplicates inside the batch")
+    @Test
+    void givenDuplicateEmailsInBatch_whenSaveEmployees_thenOnlyFirstIsCreated() {
+        //given  - precondition or setup
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 20; i++)
+            employees.add(employee("employee" + i + "@gmail.com"));
+        employees.add(employee("employee3@gmail.com"));
+        //when - action or the behaviour that we are going to test
+        List<EmployeeBatchResult> results = employeeService.saveEmployees(employees);
+        //then - verify the output
+        assertEquals(20, results.stream().filter(result -> result.status() == EmployeeBatchResult.Status.CREATED).count());
+        assertEquals(EmployeeBatchResult.Status.CREATED, results.get(3).status());
+        assertEquals(EmployeeBatchResult.Status.FAILED, results.get(20).status());
+        assertEquals(20, count(0) + count(1) + count(2));
+    }
+
+    // junit test for releasing emails on update and delete
+    @DisplayName("junit test for releasing an email once it is changed or deleted")
+    @Test
+    void givenChangedAndDeletedEmployees_whenSaveTheirOldEmails_thenSaveEmployees() {
+        //given  - precondition or setup
+        Employee patched = employeeService.saveEmployee(employee("wakahiad@gmail.com"));
+        Employee deleted = employeeService.saveEmployee(employee("john@gmail.com"));
+        employeeService.patchEmployee(patched.getId(), new EmployeePatch(null, null, "dennis@gmail.com", patched.getVersion()));
+        employeeService.deleteEmployee(deleted.getId());
+        //when - action or the behaviour that we are going to test
+        Employee first = employeeService.saveEmployee(employee("wakahiad@gmail.com"));
+        Employee second = employeeService.saveEmployee(employee("john@gmail.com"));
+        //then - verify the output
+        assertTrue(employeeService.getEmployeeById(first.getId()).isPresent());
+        assertTrue(employeeService.getEmployeeById(second.getId()).isPresent());
+        assertEquals("dennis@gmail.com", employeeService.getEmployeeById(patched.getId()).get().email());
+        assertThrows(APIException.class, () -> employeeService.saveEmployee(employee("dennis@gmail.com")));
+    }
+}
@@ -0,0 +1,107 @@
+package com.densoft.springboottesting.profiling;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlProfilerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SqlProfiler sqlProfiler;
+    private long nanoTime;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        sqlProfiler = new SqlProfiler(meterRegistry, 1.0, 2, Duration.ofMillis(100), 10, () -> nanoTime);
+    }
+
+    private void execute(String sql, long elapsedMillis) {
+        execute(sql, TimeUnit.MILLISECONDS.toNanos(elapsedMillis), false);
+    }
+
+    private void execute(String sql, long elapsedNanos, boolean batch) {
+        ExecutionInfo executionInfo = new ExecutionInfo();
+        executionInfo.setSuccess(true);
+        executionInfo.setBatch(batch);
+        List<QueryInfo> queries = List.of(new QueryInfo(sql));
+        sqlProfiler.beforeQuery(executionInfo, queries);
+        nanoTime += elapsedNanos;
+        sqlProfiler.afterQuery(executionInfo, queries);
+    }
+
+    // junit test for aggregating statements of a sampled request
+    @DisplayName("junit test for aggregating statements of a sampled request")
+    @Test
+    void givenSampledRequest_whenStatementsExecuted_thenSnapshotAggregatesThem() {
+        //given  - precondition or setup
+        sqlProfiler.beginRequest();
+        //when - action or the behaviour that we are going to test
+        execute("select e.id from employees e where e.id=?", 5);
+        execute("select e.id from employees e where e.id=?", 15);
+        execute("update employees set first_name=? where id=?", 1);
+        sqlProfiler.endRequest("GET", "/api/employees/{id}");
+        //then - verify the output
+        List<SqlProfiler.StatementSnapshot> snapshot = sqlProfiler.snapshot(10);
+        assertEquals(2, snapshot.size());
+        assertEquals(2, snapshot.get(0).executions());
+        assertEquals(20.0, snapshot.get(0).totalMillis());
+        assertEquals(15.0, snapshot.get(0).maxMillis());
+        assertEquals(2, meterRegistry.get("employees.sql.statements")
+                .tag("type", "select").tag("batch", "false").tag("success", "true").timer().count());
+    }
+
+    // junit test for flagging requests over the statement budget and slow statements
+    @DisplayName("junit test for flagging requests over the statement budget and slow statements")
+    @Test
+    void givenChattyRequest_whenEndRequest_thenBudgetExceededAndSlowStatementCounted() {
+        //given  - precondition or setup
+        sqlProfiler.beginRequest();
+        execute("select * from employees where id=?", 1);
+        execute("select * from employees where id=?", 1);
+        execute("select * from employees where id=?", 150);
+        //when - action or the behaviour that we are going to test
+        sqlProfiler.endRequest("GET", "/api/employees");
+        //then - verify the output
+        assertEquals(1.0, meterRegistry.get("employees.sql.budget.exceeded").counter().count());
+        assertEquals(1.0, meterRegistry.get("employees.sql.slow").counter().count());
+        assertEquals(3.0, meterRegistry.get("employees.sql.statements.per.request").summary().totalAmount());
+    }
+
+    // junit test for sub-millisecond statement timing
+    @DisplayName("junit test for sub-millisecond statement timing")
+    @Test
+    void givenSubMillisecondBatch_whenStatementExecuted_thenRecordedInNanoseconds() {
+        //given  - precondition or setup
+        //when - action or the behaviour that we are going to test
+        execute("insert into employees (email,first_name,last_name,version,id) values (?,?,?,?,?)", 250_000, true);
+        //then - verify the output
+        Timer timer = meterRegistry.get("employees.sql.statements")
+                .tag("type", "insert").tag("batch", "true").tag("success", "true").timer();
+        assertEquals(1, timer.count());
+        assertEquals(250_000.0, timer.totalTime(TimeUnit.NANOSECONDS));
+        assertEquals(0.25, sqlProfiler.snapshot(10).get(0).totalMillis());
+    }
+
+    // junit test for resetting collected statements
+    @DisplayName("junit test for resetting collected statements")
+    @Test
+    void givenCollectedStatements_whenReset_thenSnapshotIsEmpty() {
+        //given  - precondition or setup
+        execute("delete from employees where id=?", 1);
+        //when - action or the behaviour that we are going to test
+        sqlProfiler.reset();
+        //then - verify the output
+        assertTrue(sqlProfiler.snapshot(10).isEmpty());
+    }
+}
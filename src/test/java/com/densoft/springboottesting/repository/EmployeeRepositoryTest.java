@@ -1,13 +1,17 @@
 package com.densoft.springboottesting.repository;
 
+import com.densoft.springboottesting.dto.EmployeeView;
 import com.densoft.springboottesting.model.Employee;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -59,6 +63,24 @@ class EmployeeRepositoryTest {
         assertEquals(newEmployees.size(), employees.size());
     }
 
+    // junit test for keyset page after a given id
+    @DisplayName("junit test for keyset page after a given id ")
+    @Test
+    void givenEmployeesList_whenFindViewsAfter_thenReturnNextEmployeesInIdOrder() {
+        //given  - precondition or setup
+        Employee employeeTwo = Employee.builder()
+                .firstName("John")
+                .lastName("Doe")
+                .email("john@gmail.com")
+                .build();
+        List<Employee> savedEmployees = employeeRepository.saveAll(List.of(employee, employeeTwo));
+        //when - action or the behaviour that we are going to test
+        List<EmployeeView> employees = employeeRepository.findViewsAfter(savedEmployees.get(0).getId(), PageRequest.ofSize(10));
+        //then - verify the output
+        assertEquals(1, employees.size());
+        assertEquals(employeeTwo.getEmail(), employees.get(0).email());
+    }
+
     // junit test for get employee by id
     @DisplayName("junit test for get employee by Id ")
     @Test
@@ -72,6 +94,31 @@ class EmployeeRepositoryTest {
         assertEquals(savedEmployee.getId(), fetchedEmployee.getId());
     }
 
+    // junit test for get employee view by id
+    @DisplayName("junit test for get employee view by id ")
+    @Test
+    void givenEmployeeId_whenFindViewById_thenReturnProjectedEmployee() {
+        //given  - precondition or setup
+        Employee savedEmployee = employeeRepository.saveAndFlush(employee);
+        //when - action or the behaviour that we are going to test
+        EmployeeView fetchedEmployee = employeeRepository.findViewById(savedEmployee.getId()).get();
+        //then - verify the output
+        assertEquals(EmployeeView.of(savedEmployee), fetchedEmployee);
+    }
+
+    // junit test for get employee views by both names
+    @DisplayName("junit test for get employee views by both names ")
+    @Test
+    void givenEmployeeNames_whenFindViewsByBothNames_thenReturnProjectedEmployees() {
+        //given  - precondition or setup
+        employeeRepository.save(employee);
+        //when - action or the behaviour that we are going to test
+        List<EmployeeView> employees = employeeRepository.findViewsByBothNames(employee.getFirstName(), employee.getLastName());
+        //then - verify the output
+        assertEquals(1, employees.size());
+        assertEquals(employee.getEmail(), employees.get(0).email());
+    }
+
     // junit test for
     @DisplayName("junit test for find employee by email")
     @Test
@@ -85,6 +132,34 @@ class EmployeeRepositoryTest {
         assertEquals(savedEmployee.getEmail(), fetchedEmployee.getEmail());
     }
 
+    // junit test for unique email constraint
+    @DisplayName("junit test for unique email constraint")
+    @Test
+    void givenExistingEmail_whenSaveEmployee_thenThrowDataIntegrityViolation() {
+        //given  - precondition or setup
+        employeeRepository.saveAndFlush(employee);
+        Employee duplicate = Employee.builder()
+                .firstName("John")
+                .lastName("Doe")
+                .email(employee.getEmail())
+                .build();
+        //when - action or the behaviour that we are going to test
+        //then - verify the output
+        assertThrows(DataIntegrityViolationException.class, () -> employeeRepository.saveAndFlush(duplicate));
+    }
+
+    // junit test for find existing emails
+    @DisplayName("junit test for find existing emails")
+    @Test
+    void givenEmployeeEmail_whenFindExistingEmails_thenReturnOnlyStoredEmails() {
+        //given  - precondition or setup
+        employeeRepository.save(employee);
+        //when - action or the behaviour that we are going to test
+        Set<String> existingEmails = employeeRepository.findExistingEmails(List.of(employee.getEmail(), "unknown@gmail.com"));
+        //then - verify the output
+        assertEquals(Set.of(employee.getEmail()), existingEmails);
+    }
+
     // junit test for update operations
     @DisplayName("junit test for update operations ")
     @Test
@@ -101,6 +176,25 @@ class EmployeeRepositoryTest {
         assertEquals("harun@gmail.com", updatedEmployee.getEmail());
     }
 
+    // junit test for patch by id with version check
+    @DisplayName("junit test for patch by id with version check")
+    @Test
+    void givenEmployeeVersion_whenPatchById_thenUpdateOnlyMatchingVersion() {
+        //given  - precondition or setup
+        Employee savedEmployee = employeeRepository.saveAndFlush(employee);
+        long version = savedEmployee.getVersion();
+        //when - action or the behaviour that we are going to test
+        int updated = employeeRepository.patchById(savedEmployee.getId(), version, "harun", null, null);
+        int staleUpdate = employeeRepository.patchById(savedEmployee.getId(), version, "paul", null, null);
+        //then - verify the output
+        assertEquals(1, updated);
+        assertEquals(0, staleUpdate);
+        Employee fetchedEmployee = employeeRepository.findById(savedEmployee.getId()).get();
+        assertEquals("harun", fetchedEmployee.getFirstName());
+        assertEquals(employee.getLastName(), fetchedEmployee.getLastName());
+        assertEquals(version + 1, fetchedEmployee.getVersion());
+    }
+
     // junit test for delete employee
     @DisplayName("junit test for delete employee")
     @Test
@@ -164,4 +258,37 @@ class EmployeeRepositoryTest {
         //then - verify the output
         assertNotNull(fetchedEmployee);
     }
-}
\ No newline at end of file
+
+    // junit test for bulk delete by ids
+    @DisplayName("junit test for bulk delete by ids")
+    @Test
+    void givenEmployeeIds_whenDeleteInBulkByIds_thenDeleteOnlyThoseEmployees() {
+        //given  - precondition or setup
+        Employee employeeTwo = Employee.builder()
+                .firstName("John")
+                .lastName("Doe")
+                .email("john@gmail.com")
+                .build();
+        List<Employee> savedEmployees = employeeRepository.saveAll(List.of(employee, employeeTwo));
+        //when - action or the behaviour that we are going to test
+        int deleted = employeeRepository.deleteInBulkByIds(List.of(savedEmployees.get(0).getId(), -1L));
+        //then - verify the output
+        assertEquals(1, deleted);
+        assertEquals(1, employeeRepository.count());
+    }
+
+    // junit test for delete by id reporting whether a row was deleted
+    @DisplayName("junit test for delete by id returning the deleted row count")
+    @Test
+    void givenEmployeeId_whenDeleteByIdReturningCount_thenReturnDeletedRows() {
+        //given  - precondition or setup
+        Employee savedEmployee = employeeRepository.save(employee);
+        //when - action or the behaviour that we are going to test
+        int deleted = employeeRepository.deleteByIdReturningCount(savedEmployee.getId());
+        int deletedAgain = employeeRepository.deleteByIdReturningCount(savedEmployee.getId());
+        //then - verify the output
+        assertEquals(1, deleted);
+        assertEquals(0, deletedAgain);
+        assertTrue(employeeRepository.findById(savedEmployee.getId()).isEmpty());
+    }
+}
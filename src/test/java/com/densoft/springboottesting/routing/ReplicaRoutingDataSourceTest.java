@@ -0,0 +1,101 @@
+package com.densoft.springboottesting.routing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ReplicaRoutingDataSourceTest {
+    @Mock
+    private DataSource primary;
+    @Mock
+    private DataSource replica;
+    @Mock
+    private Connection primaryConnection;
+    @Mock
+    private Connection replicaConnection;
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        given(primary.getConnection()).willReturn(primaryConnection);
+        given(replica.getConnection()).willReturn(replicaConnection);
+        given(replicaConnection.isValid(anyInt())).willReturn(true);
+        routingDataSource = new ReplicaRoutingDataSource(primary, List.of(replica), Duration.ofHours(1), new SimpleMeterRegistry());
+        routingDataSource.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReplicaRoutingDataSource.clearPrimaryRequirement();
+        routingDataSource.destroy();
+    }
+
+    // junit test for routing read only transactions to a replica
+    @DisplayName("junit test for routing read only transactions to a replica and writes to the primary")
+    @Test
+    void givenReadOnlyTransaction_whenGetConnection_thenReturnReplicaConnection() throws SQLException {
+        //given  - precondition or setup
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        //when - action or the behaviour that we are going to test
+        Connection read = routingDataSource.getConnection();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        Connection write = routingDataSource.getConnection();
+        //then - verify the output
+        assertSame(replicaConnection, read);
+        assertSame(primaryConnection, write);
+    }
+
+    // junit test for read your writes
+    @DisplayName("junit test for reading from the primary after a write")
+    @Test
+    void givenPrimaryRequired_whenReadOnlyGetConnection_thenReturnPrimaryConnection() throws SQLException {
+        //given  - precondition or setup
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReplicaRoutingDataSource.requirePrimary();
+        //when - action or the behaviour that we are going to test
+        Connection read = routingDataSource.getConnection();
+        //then - verify the output
+        assertSame(primaryConnection, read);
+    }
+
+    // junit test for failing over to the primary
+    @DisplayName("junit test for failing over to the primary when a replica refuses connections")
+    @Test
+    void givenFailingReplica_whenReadOnlyGetConnection_thenFallBackToPrimaryUntilHealthy() throws SQLException {
+        //given  - precondition or setup
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        given(replica.getConnection()).willThrow(new SQLException("connection refused"));
+        //when - action or the behaviour that we are going to test
+        Connection first = routingDataSource.getConnection();
+        Connection second = routingDataSource.getConnection();
+        //then - verify the output
+        assertSame(primaryConnection, first);
+        assertSame(primaryConnection, second);
+        then(replica).should(times(2)).getConnection();
+
+        willReturn(replicaConnection).given(replica).getConnection();
+        routingDataSource.checkReplicas();
+        assertSame(replicaConnection, routingDataSource.getConnection());
+    }
+}
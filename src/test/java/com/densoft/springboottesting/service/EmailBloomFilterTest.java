@@ -0,0 +1,81 @@
+package com.densoft.springboottesting.service;
+
+import com.densoft.springboottesting.repository.EmployeeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class EmailBloomFilterTest {
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EmailBloomFilter emailBloomFilter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        emailBloomFilter = new EmailBloomFilter(employeeRepository, meterRegistry, 10_000, 0.01);
+    }
+
+    // junit test for loading stored emails at startup
+    @DisplayName("junit test for loading stored emails at startup")
+    @Test
+    void givenStoredEmails_whenLoad_thenMightContainThem() {
+        //given  - precondition or setup
+        given(employeeRepository.streamAllEmails()).willReturn(Stream.of("wakahiad@gmail.com", "john@gmail.com"));
+        //when - action or the behaviour that we are going to test
+        emailBloomFilter.load();
+        //then - verify the output
+        assertTrue(emailBloomFilter.mightContain("wakahiad@gmail.com"));
+        assertTrue(emailBloomFilter.mightContain("JOHN@gmail.com"));
+        assertFalse(emailBloomFilter.mightContain("jane@gmail.com"));
+    }
+
+    // junit test for false positive rate
+    @DisplayName("junit test for false positive rate close to the configured rate")
+    @Test
+    void givenExpectedInsertions_whenMightContainUnknownEmails_thenFalsePositiveRateIsBounded() {
+        //given  - precondition or setup
+        given(employeeRepository.streamAllEmails()).willReturn(Stream.empty());
+        emailBloomFilter.load();
+        for (int i = 0; i < 10_000; i++)
+            emailBloomFilter.put("employee" + i + "@gmail.com");
+        //when - action or the behaviour that we are going to test
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(emailBloomFilter.mightContain("employee" + i + "@gmail.com"));
+            if (emailBloomFilter.mightContain("unknown" + i + "@gmail.com"))
+                falsePositives++;
+        }
+        //then - verify the output
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    // junit test for counting avoided lookups
+    @DisplayName("junit test for counting avoided database lookups")
+    @Test
+    void givenKnownAndUnknownEmails_whenFilterPossiblyExisting_thenCountAvoidedLookups() {
+        //given  - precondition or setup
+        given(employeeRepository.streamAllEmails()).willReturn(Stream.of("wakahiad@gmail.com"));
+        emailBloomFilter.load();
+        //when - action or the behaviour that we are going to test
+        Set<String> candidates = emailBloomFilter.filterPossiblyExisting(List.of("wakahiad@gmail.com", "jane@gmail.com"));
+        //then - verify the output
+        assertEquals(Set.of("wakahiad@gmail.com"), candidates);
+        assertEquals(1.0, meterRegistry.get("employees.email.filter.lookups").tag("outcome", "avoided").counter().count());
+        assertEquals(1.0, meterRegistry.get("employees.email.filter.lookups").tag("outcome", "performed").counter().count());
+    }
+}
@@ -0,0 +1,200 @@
+package com.densoft.springboottesting.service;
+
+import com.densoft.springboottesting.dto.EmployeeView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeChangeFeedTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private EmployeeChangeFeed employeeChangeFeed;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        employeeChangeFeed = new EmployeeChangeFeed(meterRegistry, 2, 10, Duration.ofSeconds(15), Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        employeeChangeFeed.destroy();
+    }
+
+    // junit test for publishing outside a transaction
+    @DisplayName("junit test for publishing outside a transaction")
+    @Test
+    void givenNoTransaction_whenPublishChanges_thenAssignConsecutiveSequences() {
+        //given  - precondition or setup
+        long before = employeeChangeFeed.latestSequence();
+        //when - action or the behaviour that we are going to test
+        employeeChangeFeed.created(new EmployeeView(1L, "Dennis", "Githinji", "wakahiad@gmail.com", 0L));
+        employeeChangeFeed.deleted(1L);
+        //then - verify the output
+        assertEquals(before + 2, employeeChangeFeed.latestSequence());
+        assertEquals(2.0, meterRegistry.get("employees.changes.published").counter().count());
+    }
+
+    // junit test for resuming from an id that is no longer buffered
+    @DisplayName("junit test for resuming from an id that is no longer buffered")
+    @Test
+    void givenEvictedLastEventId_whenSubscribe_thenSendResync() throws InterruptedException {
+        //given  - precondition or setup
+        long evicted = employeeChangeFeed.latestSequence();
+        for (long id = 1; id <= 3; id++)
+            employeeChangeFeed.deleted(id);
+        //when - action or the behaviour that we are going to test
+        employeeChangeFeed.subscribe(evicted);
+        //then - verify the output
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (meterRegistry.get("employees.changes.resyncs").counter().count() == 0 && System.nanoTime() < deadline)
+            Thread.sleep(10);
+        assertEquals(1.0, meterRegistry.get("employees.changes.resyncs").counter().count());
+    }
+
+    // junit test for announcing a change made inside a transaction
+    @DisplayName("junit test for announcing a change made inside a transaction")
+    @Test
+    void givenActiveTransaction_whenPublishChange_thenAppendAfterCommit() {
+        //given  - precondition or setup
+        long before = employeeChangeFeed.latestSequence();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            //when - action or the behaviour that we are going to test
+            employeeChangeFeed.deleted(1L);
+            long beforeCommit = employeeChangeFeed.latestSequence();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            //then - verify the output
+            assertEquals(before, beforeCommit);
+            assertEquals(before + 1, employeeChangeFeed.latestSequence());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    // junit test for delivering live changes in order
+    @DisplayName("junit test for delivering live changes in order")
+    @Test
+    void givenSubscriber_whenPublishChanges_thenDeliverInOrder() throws InterruptedException {
+        //given  - precondition or setup
+        RecordingEmitter emitter = new RecordingEmitter(null);
+        employeeChangeFeed.subscribe(null, emitter);
+        long first = employeeChangeFeed.latestSequence() + 1;
+        //when - action or the behaviour that we are going to test
+        employeeChangeFeed.created(new EmployeeView(1L, "Dennis", "Githinji", "wakahiad@gmail.com", 0L));
+        employeeChangeFeed.updated(new EmployeeView(1L, "Denno", "Githinji", "wakahiad@gmail.com", 1L));
+        employeeChangeFeed.deleted(1L);
+        //then - verify the output
+        assertEquals("created:" + first, emitter.next());
+        assertEquals("updated:" + (first + 1), emitter.next());
+        assertEquals("deleted:" + (first + 2), emitter.next());
+    }
+
+    // junit test for replaying missed changes from Last-Event-ID
+    @DisplayName("junit test for replaying missed changes from Last-Event-ID")
+    @Test
+    void givenBufferedLastEventId_whenSubscribe_thenReplayMissedThenLive() throws InterruptedException {
+        //given  - precondition or setup
+        long lastEventId = employeeChangeFeed.latestSequence();
+        employeeChangeFeed.deleted(1L);
+        employeeChangeFeed.deleted(2L);
+        RecordingEmitter emitter = new RecordingEmitter(null);
+        //when - action or the behaviour that we are going to test
+        employeeChangeFeed.subscribe(lastEventId, emitter);
+        String firstReplayed = emitter.next();
+        String secondReplayed = emitter.next();
+        // published once the replay is out; with a two-slot ring it would otherwise overwrite an unsent change
+        employeeChangeFeed.deleted(3L);
+        //then - verify the output
+        assertEquals("deleted:" + (lastEventId + 1), firstReplayed);
+        assertEquals("deleted:" + (lastEventId + 2), secondReplayed);
+        assertEquals("deleted:" + (lastEventId + 3), emitter.next());
+        assertEquals(0.0, meterRegistry.get("employees.changes.resyncs").counter().count());
+    }
+
+    // junit test for disconnecting a subscriber that falls behind
+    @DisplayName("junit test for disconnecting a subscriber that falls behind")
+    @Test
+    void givenSlowSubscriber_whenQueueOverflows_thenSendResyncAndDisconnect() throws InterruptedException {
+        //given  - precondition or setup
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter emitter = new RecordingEmitter(release);
+        employeeChangeFeed.subscribe(null, emitter);
+        employeeChangeFeed.deleted(1L);
+        assertTrue(emitter.sending.await(5, TimeUnit.SECONDS));
+        //when - action or the behaviour that we are going to test
+        for (long id = 2; id <= 12; id++)
+            employeeChangeFeed.deleted(id);
+        release.countDown();
+        //then - verify the output
+        assertTrue(emitter.next().startsWith("deleted:"));
+        assertEquals(EmployeeChangeFeed.RESYNC_EVENT + ":" + employeeChangeFeed.latestSequence(), emitter.next());
+        assertTrue(emitter.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(1.0, meterRegistry.get("employees.changes.dropped").counter().count());
+        assertEquals(0.0, meterRegistry.get("employees.changes.subscribers").gauge().value());
+    }
+
+    // records "<event>:<id>" for each event sent; blocks the first send until released, when given a latch
+    private static final class RecordingEmitter extends SseEmitter {
+        private final CountDownLatch release;
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+
+        RecordingEmitter(CountDownLatch release) {
+            super(60_000L);
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            if (release != null) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            StringBuilder text = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType data : builder.build())
+                if (data.getData() instanceof String part)
+                    text.append(part);
+            String id = null;
+            String name = null;
+            for (String line : text.toString().split("\n")) {
+                if (line.startsWith("id:"))
+                    id = line.substring(3);
+                else if (line.startsWith("event:"))
+                    name = line.substring(6);
+            }
+            if (name != null)
+                events.add(name + ":" + id);
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+        String next() throws InterruptedException {
+            return events.poll(5, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.densoft.springboottesting.service;
+
+import com.densoft.springboottesting.dto.EmployeeBatchResult;
+import com.densoft.springboottesting.dto.IngestionStatus;
+import com.densoft.springboottesting.exception.TooManyRequestsException;
+import com.densoft.springboottesting.model.Employee;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeIngestionQueueTest {
+    @Mock
+    private EmployeeService employeeService;
+
+    private static Employee employee(String email) {
+        return Employee.builder()
+                .firstName("Dennis")
+                .lastName("Githinji")
+                .email(email)
+                .build();
+    }
+
+    private EmployeeIngestionQueue queue(int capacity, int batchSize, Duration linger) {
+        return new EmployeeIngestionQueue(employeeService, new SimpleMeterRegistry(),
+                capacity, batchSize, linger, Duration.ofMinutes(1), Duration.ofSeconds(5));
+    }
+
+    // junit test for rejecting submissions when the queue is full
+    @DisplayName("junit test for rejecting submissions when the queue is full")
+    @Test
+    void givenFullQueue_whenSubmit_thenThrowTooManyRequests() throws InterruptedException {
+        //given  - precondition or setup
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(employeeService.saveEmployees(anyList())).willAnswer(invocationOnMock -> {
+            writing.countDown();
+            release.await();
+            return List.of();
+        });
+        EmployeeIngestionQueue employeeIngestionQueue = queue(1, 1, Duration.ZERO);
+        employeeIngestionQueue.start();
+        employeeIngestionQueue.submit(employee("first@gmail.com"));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        employeeIngestionQueue.submit(employee("second@gmail.com"));
+        //when - action or the behaviour that we are going to test
+        assertThrows(TooManyRequestsException.class, () -> employeeIngestionQueue.submit(employee("third@gmail.com")));
+        //then - verify the output
+        release.countDown();
+        employeeIngestionQueue.stop();
+        then(employeeService).should(times(2)).saveEmployees(anyList());
+    }
+
+    // junit test for writing submissions in one batch
+    @DisplayName("junit test for writing submissions in one batch and recording statuses")
+    @Test
+    void givenBurstOfSubmissions_whenWriterDrains_thenStoreInOneBatchAndRecordStatuses() {
+        //given  - precondition or setup
+        given(employeeService.saveEmployees(anyList())).willAnswer(invocationOnMock -> {
+            List<Employee> employees = invocationOnMock.getArgument(0);
+            Employee first = employees.get(0);
+            first.setId(7L);
+            return List.of(EmployeeBatchResult.created(0, first),
+                    EmployeeBatchResult.failed(1, employees.get(1), "Duplicate email in batch: " + first.getEmail()));
+        });
+        // the writer lingers long enough for the second submission to join the first batch
+        EmployeeIngestionQueue employeeIngestionQueue = queue(10, 2, Duration.ofSeconds(5));
+        employeeIngestionQueue.start();
+        //when - action or the behaviour that we are going to test
+        IngestionStatus created = employeeIngestionQueue.submit(employee("wakahiad@gmail.com"));
+        IngestionStatus failed = employeeIngestionQueue.submit(employee("wakahiad@gmail.com"));
+        employeeIngestionQueue.stop();
+        //then - verify the output
+        then(employeeService).should(times(1)).saveEmployees(anyList());
+        assertEquals(IngestionStatus.created(created.trackingId(), 7L), employeeIngestionQueue.status(created.trackingId()).get());
+        assertEquals(IngestionStatus.State.FAILED, employeeIngestionQueue.status(failed.trackingId()).get().state());
+    }
+
+    // junit test for rejecting submissions after stop
+    @DisplayName("junit test for rejecting submissions after stop")
+    @Test
+    void givenStoppedQueue_whenSubmit_thenThrowTooManyRequests() {
+        //given  - precondition or setup
+        EmployeeIngestionQueue employeeIngestionQueue = queue(10, 2, Duration.ZERO);
+        employeeIngestionQueue.start();
+        employeeIngestionQueue.stop();
+        //when - action or the behaviour that we are going to test
+        //then - verify the output
+        assertThrows(TooManyRequestsException.class, () -> employeeIngestionQueue.submit(employee("wakahiad@gmail.com")));
+        assertFalse(employeeIngestionQueue.isRunning());
+    }
+
+    // junit test for failing unwritten submissions when the writer is interrupted
+    @DisplayName("junit test for failing unwritten submissions when the writer is interrupted")
+    @Test
+    void givenWriterPastDrainTimeout_whenStop_thenMarkUnwrittenFailed() throws InterruptedException {
+        //given  - precondition or setup
+        CountDownLatch writing = new CountDownLatch(1);
+        given(employeeService.saveEmployees(anyList())).willAnswer(invocationOnMock -> {
+            writing.countDown();
+            // stands in for a write that outlasts the drain timeout; stop() interrupts it
+            new CountDownLatch(1).await();
+            return List.of();
+        });
+        EmployeeIngestionQueue employeeIngestionQueue = new EmployeeIngestionQueue(employeeService, new SimpleMeterRegistry(),
+                10, 1, Duration.ZERO, Duration.ofMinutes(1), Duration.ofMillis(100));
+        employeeIngestionQueue.start();
+        IngestionStatus writingStatus = employeeIngestionQueue.submit(employee("first@gmail.com"));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        IngestionStatus queuedStatus = employeeIngestionQueue.submit(employee("second@gmail.com"));
+        //when - action or the behaviour that we are going to test
+        employeeIngestionQueue.stop();
+        //then - verify the output
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (employeeIngestionQueue.status(queuedStatus.trackingId()).get().state() == IngestionStatus.State.QUEUED
+                && System.nanoTime() < deadline)
+            Thread.sleep(10);
+        assertEquals(IngestionStatus.State.FAILED, employeeIngestionQueue.status(writingStatus.trackingId()).get().state());
+        assertEquals(IngestionStatus.State.FAILED, employeeIngestionQueue.status(queuedStatus.trackingId()).get().state());
+    }
+
+    // junit test for stopping the queue after the web server
+    @DisplayName("junit test for stopping the queue after the web server")
+    @Test
+    void givenWebServerLifecycles_whenGetPhase_thenStopAfterThem() {
+        //given  - precondition or setup
+        EmployeeIngestionQueue employeeIngestionQueue = queue(1, 1, Duration.ZERO);
+        //when - action or the behaviour that we are going to test
+        int phase = employeeIngestionQueue.getPhase();
+        //then - verify the output
+        // lower phases stop later; the web server itself stops 1024 below graceful shutdown
+        assertTrue(phase < WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1024);
+    }
+}
@@ -0,0 +1,93 @@
+package com.densoft.springboottesting.service;
+
+import com.densoft.springboottesting.dto.EmployeeView;
+import com.densoft.springboottesting.repository.EmployeeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeSearchIndexTest {
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    private EmployeeSearchIndex employeeSearchIndex;
+    private EmployeeView dennis;
+    private EmployeeView denise;
+    private EmployeeView john;
+
+    @BeforeEach
+    void setUp() {
+        employeeSearchIndex = new EmployeeSearchIndex(employeeRepository, new SimpleMeterRegistry());
+        dennis = new EmployeeView(1L, "Dennis", "Githinji", "wakahiad@gmail.com", 0L);
+        denise = new EmployeeView(2L, "Denise", "Dénard", "denise@gmail.com", 0L);
+        john = new EmployeeView(3L, "John", "Den", "john@gmail.com", 0L);
+    }
+
+    // junit test for loading the index from stored employees
+    @DisplayName("junit test for loading the index and searching by name prefix")
+    @Test
+    void givenStoredEmployees_whenLoadAndSearchPrefix_thenReturnRankedMatches() {
+        //given  - precondition or setup
+        given(employeeRepository.streamAllViews()).willReturn(Stream.of(dennis, denise, john));
+        employeeSearchIndex.load();
+        //when - action or the behaviour that we are going to test
+        List<EmployeeView> employees = employeeSearchIndex.search("den", 10);
+        //then - verify the output
+        assertEquals(List.of(john, dennis, denise), employees);
+    }
+
+    // junit test for accent and case insensitive multi term search
+    @DisplayName("junit test for accent and case insensitive multi term search")
+    @Test
+    void givenIndexedEmployees_whenSearchMultipleTerms_thenAllTermsMustMatch() {
+        //given  - precondition or setup
+        employeeSearchIndex.index(dennis);
+        employeeSearchIndex.index(denise);
+        //when - action or the behaviour that we are going to test
+        List<EmployeeView> employees = employeeSearchIndex.search("DEN  dena", 10);
+        //then - verify the output
+        assertEquals(List.of(denise), employees);
+        assertEquals(List.of(dennis), employeeSearchIndex.search("wakahiad@g", 10));
+    }
+
+    // junit test for keeping the index current on update and remove
+    @DisplayName("junit test for keeping the index current on update and remove")
+    @Test
+    void givenIndexedEmployee_whenUpdatedAndRemoved_thenOldTokensNoLongerMatch() {
+        //given  - precondition or setup
+        employeeSearchIndex.index(dennis);
+        //when - action or the behaviour that we are going to test
+        employeeSearchIndex.index(new EmployeeView(1L, "Paul", "Githinji", "paul@gmail.com", 1L));
+        employeeSearchIndex.index(dennis);
+        //then - verify the output
+        assertTrue(employeeSearchIndex.search("dennis", 10).isEmpty());
+        assertEquals("Paul", employeeSearchIndex.search("pa", 10).get(0).firstName());
+        employeeSearchIndex.remove(1L);
+        assertTrue(employeeSearchIndex.search("githinji", 10).isEmpty());
+    }
+
+    // junit test for search limit
+    @DisplayName("junit test for search limit capped at max limit")
+    @Test
+    void givenManyMatches_whenSearchWithLargeLimit_thenReturnAtMostMaxLimit() {
+        //given  - precondition or setup
+        for (long id = 1; id <= 100; id++)
+            employeeSearchIndex.index(new EmployeeView(id, "Anna", "Smith" + id, "anna" + id + "@gmail.com", 0L));
+        //when - action or the behaviour that we are going to test
+        List<EmployeeView> employees = employeeSearchIndex.search("an", 1000);
+        //then - verify the output
+        assertEquals(EmployeeSearchIndex.MAX_LIMIT, employees.size());
+        assertEquals(1L, employees.get(0).id());
+    }
+}
@@ -1,5 +1,11 @@
 package com.densoft.springboottesting.service;
 
+import com.densoft.springboottesting.config.CacheConfig;
+import com.densoft.springboottesting.dto.EmployeeBatch;
+import com.densoft.springboottesting.dto.EmployeeBatchResult;
+import com.densoft.springboottesting.dto.EmployeePage;
+import com.densoft.springboottesting.dto.EmployeePatch;
+import com.densoft.springboottesting.dto.EmployeeView;
 import com.densoft.springboottesting.exception.APIException;
 import com.densoft.springboottesting.model.Employee;
 import com.densoft.springboottesting.repository.EmployeeRepository;
@@ -10,10 +16,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.BDDMockito.*;
@@ -24,6 +38,14 @@ import static org.mockito.Mockito.when;
 class EmployeeServiceImplTest {
     @Mock
     private EmployeeRepository employeeRepository;
+    @Mock
+    private EmailBloomFilter emailBloomFilter;
+    @Mock
+    private EmployeeSearchIndex employeeSearchIndex;
+    @Mock
+    private EmployeeChangeFeed employeeChangeFeed;
+    @Mock
+    private CacheManager cacheManager;
     @InjectMocks
     private EmployeeServiceImpl employeeService;
 
@@ -52,16 +74,117 @@ class EmployeeServiceImplTest {
         assertEquals(employee.getEmail(), savedEmployee.getEmail());
     }
 
+    // junit test for save employee publishes a created change
+    @DisplayName("junit test for save employee publishes a created change")
+    @Test
+    void givenEmployeeObject_whenSaveEmployee_thenPublishCreatedChange() {
+        //given  - precondition or setup
+        given(employeeRepository.save(employee)).willReturn(employee);
+        //when - action or the behaviour that we are going to test
+        employeeService.saveEmployee(employee);
+        //then - verify the output
+        then(employeeChangeFeed).should().created(EmployeeView.of(employee));
+    }
+
+    // junit test for delete employee publishes a deleted change
+    @DisplayName("junit test for delete employee publishes a deleted change")
+    @Test
+    void givenEmployeeId_whenDeleteEmployee_thenPublishDeletedChange() {
+        //given  - precondition or setup
+        given(employeeRepository.deleteByIdReturningCount(1L)).willReturn(1);
+        //when - action or the behaviour that we are going to test
+        employeeService.deleteEmployee(1L);
+        //then - verify the output
+        then(employeeChangeFeed).should().deleted(1L);
+    }
+
+    // junit test for delete employee publishing nothing when no row was deleted
+    @DisplayName("junit test for delete employee publishing nothing when the id is unknown")
+    @Test
+    void givenUnknownEmployeeId_whenDeleteEmployee_thenPublishNothing() {
+        //given  - precondition or setup
+        given(employeeRepository.deleteByIdReturningCount(1L)).willReturn(0);
+        //when - action or the behaviour that we are going to test
+        employeeService.deleteEmployee(1L);
+        //then - verify the output
+        then(employeeChangeFeed).should(never()).deleted(anyLong());
+        then(employeeSearchIndex).should(never()).remove(anyLong());
+    }
+
     // junit test for save employee using existing email
     @DisplayName("junit test for save employee using existing email ")
     @Test
     void givenEmployeeObject_whenSaveEmployee_thenThrowException() {
         //given  - precondition or setup
-        given(employeeRepository.findByEmail(employee.getEmail())).willReturn(Optional.of(employee));
+        given(employeeRepository.save(employee)).willThrow(new DataIntegrityViolationException(
+                "Unique index or primary key violation: \"PUBLIC.UK_EMPLOYEES_EMAIL_INDEX_A ON PUBLIC.EMPLOYEES(EMAIL)\""));
+        //when - action or the behaviour that we are going to test
+        APIException exception = assertThrows(APIException.class, () -> employeeService.saveEmployee(employee));
+        //then - verify the output
+        assertEquals("Employee already exists with given email: " + employee.getEmail(), exception.getMessage());
+        then(employeeRepository).should(never()).findByEmail(employee.getEmail());
+    }
+
+    // junit test for save employees in bulk
+    @DisplayName("junit test for save employees in bulk with per item results")
+    @Test
+    void givenEmployeesWithDuplicateEmails_whenSaveEmployees_thenSaveOthersAndReportFailures() {
+        //given  - precondition or setup
+        Employee employeeTwo = Employee.builder()
+                .firstName("John")
+                .lastName("Doe")
+                .email("john@gmail.com")
+                .build();
+        Employee duplicateInBatch = Employee.builder()
+                .firstName("Johnny")
+                .lastName("Doe")
+                .email("john@gmail.com")
+                .build();
+        Employee existing = Employee.builder()
+                .firstName("Jane")
+                .lastName("Doe")
+                .email("jane@gmail.com")
+                .build();
+        given(emailBloomFilter.filterPossiblyExisting(Set.of(employee.getEmail(), employeeTwo.getEmail(), existing.getEmail())))
+                .willReturn(Set.of(existing.getEmail()));
+        given(employeeRepository.findExistingEmails(Set.of(existing.getEmail())))
+                .willReturn(Set.of(existing.getEmail()));
+        given(employeeRepository.saveAll(List.of(employee, employeeTwo))).willReturn(List.of(employee, employeeTwo));
+        //when - action or the behaviour that we are going to test
+        List<EmployeeBatchResult> results = employeeService.saveEmployees(List.of(employee, employeeTwo, duplicateInBatch, existing));
+        //then - verify the output
+        assertEquals(4, results.size());
+        assertEquals(EmployeeBatchResult.Status.CREATED, results.get(0).status());
+        assertEquals(EmployeeBatchResult.Status.CREATED, results.get(1).status());
+        assertEquals(EmployeeBatchResult.Status.FAILED, results.get(2).status());
+        assertEquals(EmployeeBatchResult.Status.FAILED, results.get(3).status());
+    }
+
+    // junit test for save employees in bulk with emails unknown to the bloom filter
+    @DisplayName("junit test for save employees in bulk skipping the existence query")
+    @Test
+    void givenEmailsRuledOutByBloomFilter_whenSaveEmployees_thenSkipExistenceQuery() {
+        //given  - precondition or setup
+        given(emailBloomFilter.filterPossiblyExisting(Set.of(employee.getEmail()))).willReturn(Set.of());
+        given(employeeRepository.saveAll(List.of(employee))).willReturn(List.of(employee));
+        //when - action or the behaviour that we are going to test
+        List<EmployeeBatchResult> results = employeeService.saveEmployees(List.of(employee));
+        //then - verify the output
+        assertEquals(EmployeeBatchResult.Status.CREATED, results.get(0).status());
+        then(employeeRepository).should(never()).findExistingEmails(any());
+        then(emailBloomFilter).should().put(employee.getEmail());
+    }
+
+    // junit test for save employees in bulk above the maximum batch size
+    @DisplayName("junit test for save employees in bulk above the maximum batch size")
+    @Test
+    void givenTooManyEmployees_whenSaveEmployees_thenThrowException() {
+        //given  - precondition or setup
+        List<Employee> employees = Collections.nCopies(EmployeeService.MAX_BATCH_SIZE + 1, employee);
         //when - action or the behaviour that we are going to test
-        assertThrows(APIException.class, () -> employeeService.saveEmployee(employee));
+        assertThrows(APIException.class, () -> employeeService.saveEmployees(employees));
         //then - verify the output
-        then(employeeRepository).should(never()).save(employee);
+        then(employeeRepository).should(never()).saveAll(any());
     }
 
     // junit test for get all employees
@@ -97,18 +220,73 @@ class EmployeeServiceImplTest {
         assertEquals(0, fetchedEmployees.size());
     }
 
+    // junit test for get employees page
+    @DisplayName("junit test for get employees page with next cursor")
+    @Test
+    void givenMoreRowsThanLimit_whenGetEmployeePage_thenReturnPageWithNextCursor() {
+        //given  - precondition or setup
+        Employee employeeTwo = Employee.builder()
+                .id(2L)
+                .firstName("John")
+                .lastName("Doe")
+                .email("john@gmail.com")
+                .build();
+        given(employeeRepository.findViewsAfter(0L, PageRequest.ofSize(2)))
+                .willReturn(List.of(EmployeeView.of(employee), EmployeeView.of(employeeTwo)));
+        //when - action or the behaviour that we are going to test
+        EmployeePage page = employeeService.getEmployeePage(0L, 1);
+        //then - verify the output
+        assertEquals(1, page.content().size());
+        assertEquals(employee.getId(), page.nextCursor());
+    }
+
+    // junit test for get employees page capped at max page size
+    @DisplayName("junit test for get employees last page capped at max page size")
+    @Test
+    void givenLimitAboveMax_whenGetEmployeePage_thenClampLimitAndReturnLastPage() {
+        //given  - precondition or setup
+        given(employeeRepository.findViewsAfter(0L, PageRequest.ofSize(EmployeeService.MAX_PAGE_SIZE + 1)))
+                .willReturn(List.of(EmployeeView.of(employee)));
+        //when - action or the behaviour that we are going to test
+        EmployeePage page = employeeService.getEmployeePage(0L, 100_000);
+        //then - verify the output
+        assertEquals(1, page.content().size());
+        assertNull(page.nextCursor());
+    }
+
     // junit test for getEmployeeId
     @DisplayName("junit test for get employeeById ")
     @Test
     void givenEmployeeId_whenGetEmployeeById_thenEmployeeObject() {
         //given  - precondition or setup
-        given(employeeRepository.findById(employee.getId())).willReturn(Optional.of(employee));
+        given(employeeRepository.findViewById(employee.getId())).willReturn(Optional.of(EmployeeView.of(employee)));
 
         //when - action or the behaviour that we are going to test
-        Employee savedEmployee = employeeService.getEmployeeById(employee.getId()).get();
+        EmployeeView savedEmployee = employeeService.getEmployeeById(employee.getId()).get();
 
         //then - verify the output
-        assertNotNull(employee);
+        assertNotNull(savedEmployee);
+        assertEquals(employee.getEmail(), savedEmployee.email());
+    }
+
+    // junit test for get employees by ids
+    @DisplayName("junit test for get employees by ids in requested order")
+    @Test
+    void givenEmployeeIds_whenGetEmployeesByIds_thenReturnInRequestedOrderWithMissingIds() {
+        //given  - precondition or setup
+        Employee employeeTwo = Employee.builder()
+                .id(2L)
+                .firstName("John")
+                .lastName("Doe")
+                .email("john@gmail.com")
+                .build();
+        given(employeeRepository.findViewsByIdIn(List.of(2L, 3L, 1L)))
+                .willReturn(List.of(EmployeeView.of(employee), EmployeeView.of(employeeTwo)));
+        //when - action or the behaviour that we are going to test
+        EmployeeBatch batch = employeeService.getEmployeesByIds(List.of(2L, 3L, 1L, 2L));
+        //then - verify the output
+        assertEquals(List.of(EmployeeView.of(employeeTwo), EmployeeView.of(employee)), batch.employees());
+        assertEquals(List.of(3L), batch.missingIds());
     }
 
     // junit test for update employee
@@ -131,16 +309,141 @@ class EmployeeServiceImplTest {
         assertEquals(updatedEmployee.getFirstName(), returnedUpdatedEmployee.getFirstName());
     }
 
+    // junit test for patch employee keeps the search index current
+    @DisplayName("junit test for patch employee keeps the search index current")
+    @Test
+    void givenIndexedEmployee_whenPatchEmployee_thenIndexPatchedViewWithoutReading() {
+        //given  - precondition or setup
+        given(employeeRepository.patchById(1L, 0L, "paul", null, null)).willReturn(1);
+        given(employeeSearchIndex.get(1L)).willReturn(new EmployeeView(1L, "Dennis", "Githinji", "wakahiad@gmail.com", 0L));
+        //when - action or the behaviour that we are going to test
+        employeeService.patchEmployee(1L, new EmployeePatch("paul", null, null, 0L));
+        //then - verify the output
+        then(employeeSearchIndex).should().index(new EmployeeView(1L, "paul", "Githinji", "wakahiad@gmail.com", 1L));
+        then(employeeRepository).should(never()).findViewById(anyLong());
+    }
+
+    // junit test for employee version served from the employees cache
+    @DisplayName("junit test for employee version served from the employees cache")
+    @Test
+    void givenCachedEmployee_whenGetEmployeeVersion_thenReturnCachedVersionWithoutQuery() {
+        //given  - precondition or setup
+        Cache cache = mock(Cache.class);
+        given(cacheManager.getCache(CacheConfig.EMPLOYEES_CACHE)).willReturn(cache);
+        given(cache.get(1L, EmployeeView.class)).willReturn(new EmployeeView(1L, "Dennis", "Githinji", "wakahiad@gmail.com", 7L));
+        //when - action or the behaviour that we are going to test
+        Optional<Long> version = employeeService.getEmployeeVersion(1L);
+        //then - verify the output
+        assertEquals(Optional.of(7L), version);
+        then(employeeRepository).should(never()).findVersionById(anyLong());
+    }
+
+    // junit test for employee version read from the database on a cache miss
+    @DisplayName("junit test for employee version read from the database on a cache miss")
+    @Test
+    void givenUncachedEmployee_whenGetEmployeeVersion_thenQueryVersionColumn() {
+        //given  - precondition or setup
+        given(cacheManager.getCache(CacheConfig.EMPLOYEES_CACHE)).willReturn(mock(Cache.class));
+        given(employeeRepository.findVersionById(1L)).willReturn(Optional.of(7L));
+        //when - action or the behaviour that we are going to test
+        Optional<Long> version = employeeService.getEmployeeVersion(1L);
+        //then - verify the output
+        assertEquals(Optional.of(7L), version);
+    }
+
+    // junit test for replace employee with matching version
+    @DisplayName("junit test for replace employee with matching version")
+    @Test
+    void givenMatchingVersion_whenReplaceEmployee_thenReturnViewWithNextVersion() {
+        //given  - precondition or setup
+        given(employeeRepository.replaceById(1L, 4L, "Dennis", "Githinji", "wakahiad@gmail.com")).willReturn(1);
+        //when - action or the behaviour that we are going to test
+        EmployeeView replaced = employeeService.replaceEmployee(1L, 4L, employee).get();
+        //then - verify the output
+        assertEquals(5L, replaced.version());
+        assertEquals(employee.getEmail(), replaced.email());
+    }
+
+    // junit test for replace employee with stale version
+    @DisplayName("junit test for replace employee with stale version")
+    @Test
+    void givenStaleVersion_whenReplaceEmployee_thenThrowOptimisticLockingFailure() {
+        //given  - precondition or setup
+        given(employeeRepository.replaceById(1L, 3L, "Dennis", "Githinji", "wakahiad@gmail.com")).willReturn(0);
+        given(employeeRepository.existsById(1L)).willReturn(true);
+        //when - action or the behaviour that we are going to test
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> employeeService.replaceEmployee(1L, 3L, employee));
+        //then - verify the output
+        then(emailBloomFilter).should(never()).put(anyString());
+    }
+
+    // junit test for patch employee
+    @DisplayName("junit test for patch employee")
+    @Test
+    void givenMatchingVersion_whenPatchEmployee_thenReturnTrue() {
+        //given  - precondition or setup
+        EmployeePatch patch = new EmployeePatch("paul", null, null, 0L);
+        given(employeeRepository.patchById(1L, 0L, "paul", null, null)).willReturn(1);
+        //when - action or the behaviour that we are going to test
+        boolean patched = employeeService.patchEmployee(1L, patch);
+        //then - verify the output
+        assertTrue(patched);
+        then(employeeRepository).should(never()).existsById(1L);
+    }
+
+    // junit test for patch employee with stale version
+    @DisplayName("junit test for patch employee with stale version")
+    @Test
+    void givenStaleVersion_whenPatchEmployee_thenThrowOptimisticLockingFailure() {
+        //given  - precondition or setup
+        EmployeePatch patch = new EmployeePatch("paul", null, null, 0L);
+        given(employeeRepository.patchById(1L, 0L, "paul", null, null)).willReturn(0);
+        given(employeeRepository.existsById(1L)).willReturn(true);
+        //when - action or the behaviour that we are going to test
+        //then - verify the output
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> employeeService.patchEmployee(1L, patch));
+    }
+
+    // junit test for patch employee not found
+    @DisplayName("junit test for patch employee not found")
+    @Test
+    void givenUnknownId_whenPatchEmployee_thenReturnFalse() {
+        //given  - precondition or setup
+        EmployeePatch patch = new EmployeePatch("paul", null, null, 0L);
+        given(employeeRepository.patchById(1L, 0L, "paul", null, null)).willReturn(0);
+        given(employeeRepository.existsById(1L)).willReturn(false);
+        //when - action or the behaviour that we are going to test
+        boolean patched = employeeService.patchEmployee(1L, patch);
+        //then - verify the output
+        assertFalse(patched);
+    }
+
     // junit test for delete employee
     @DisplayName("junit test for delete employee  ")
     @Test
     void givenEmployeeId_whenDeleteEmployee_thenRemoveEmployee() {
         //given  - precondition or setup
         long employeeId = 1L;
-        willDoNothing().given(employeeRepository).deleteById(employeeId);
+        given(employeeRepository.deleteByIdReturningCount(employeeId)).willReturn(1);
         //when - action or the behaviour that we are going to test
         employeeService.deleteEmployee(employeeId);
         //then - verify the output
-        then(employeeRepository).should(atLeastOnce()).deleteById(employeeId);
+        then(employeeRepository).should(atLeastOnce()).deleteByIdReturningCount(employeeId);
+    }
+
+    // junit test for delete employees in bulk
+    @DisplayName("junit test for delete employees in bulk in chunks")
+    @Test
+    void givenManyEmployeeIds_whenDeleteEmployees_thenDeleteInChunks() {
+        //given  - precondition or setup
+        List<Long> ids = LongStream.rangeClosed(1, EmployeeServiceImpl.DELETE_CHUNK_SIZE + 1).boxed().toList();
+        given(employeeRepository.deleteInBulkByIds(anyCollection())).willAnswer(invocationOnMock ->
+                invocationOnMock.<Collection<Long>>getArgument(0).size());
+        //when - action or the behaviour that we are going to test
+        int deleted = employeeService.deleteEmployees(ids);
+        //then - verify the output
+        assertEquals(ids.size(), deleted);
+        then(employeeRepository).should(times(2)).deleteInBulkByIds(anyCollection());
+        then(employeeRepository).should(never()).findById(anyLong());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,74 @@
+package com.densoft.springboottesting.sharding;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardIdGeneratorTest {
+
+    private static final long NOW = ShardIdGenerator.EPOCH_MILLIS + 1_000_000L;
+
+    // junit test for ids within one millisecond
+    @DisplayName("junit test for increasing ids within one millisecond")
+    @Test
+    void givenFixedClock_whenNextId_thenReturnIncreasingIdsCarryingNodeId() {
+        //given  - precondition or setup
+        ShardIdGenerator generator = new ShardIdGenerator(7, () -> NOW);
+        //when - action or the behaviour that we are going to test
+        long first = generator.nextId();
+        long second = generator.nextId();
+        //then - verify the output
+        assertEquals(first + 1, second);
+        assertEquals(7, (first >>> ShardIdGenerator.SEQUENCE_BITS) & ShardIdGenerator.MAX_NODE_ID);
+        assertEquals(NOW - ShardIdGenerator.EPOCH_MILLIS, first >>> (ShardIdGenerator.NODE_BITS + ShardIdGenerator.SEQUENCE_BITS));
+    }
+
+    // junit test for sequence overflow and a clock stepping back
+    @DisplayName("junit test for unique ids when the sequence overflows and the clock steps back")
+    @Test
+    void givenSequenceOverflowAndClockStepBack_whenNextId_thenIdsKeepIncreasing() {
+        //given  - precondition or setup
+        AtomicLong clock = new AtomicLong(NOW);
+        ShardIdGenerator generator = new ShardIdGenerator(1, clock::get);
+        //when - action or the behaviour that we are going to test
+        long previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            if (i == 5_000)
+                clock.set(NOW - 1_000);
+            long id = generator.nextId();
+            //then - verify the output
+            assertTrue(id > previous);
+            previous = id;
+        }
+    }
+
+    // junit test for ids staying within the exact integer range of a double
+    @DisplayName("junit test for ids staying within the exact integer range of a double")
+    @Test
+    void givenLastMillisecondAndHighestNodeId_whenNextId_thenIdFitsIn53Bits() {
+        //given  - precondition or setup
+        long lastMillis = ShardIdGenerator.EPOCH_MILLIS + (1L << 41) - 1;
+        ShardIdGenerator generator = new ShardIdGenerator(ShardIdGenerator.MAX_NODE_ID, () -> lastMillis);
+        //when - action or the behaviour that we are going to test
+        long id = 0;
+        for (int i = 0; i < 128; i++)
+            id = generator.nextId();
+        //then - verify the output
+        assertTrue(id < (1L << 53));
+        assertEquals(id, (long) (double) id);
+    }
+
+    // junit test for rejecting an out of range node id
+    @DisplayName("junit test for rejecting an out of range node id")
+    @Test
+    void givenNodeIdOutOfRange_whenCreateGenerator_thenThrowIllegalArgumentException() {
+        //given  - precondition or setup
+        int nodeId = ShardIdGenerator.MAX_NODE_ID + 1;
+        //when - action or the behaviour that we are going to test
+        //then - verify the output
+        assertThrows(IllegalArgumentException.class, () -> new ShardIdGenerator(nodeId));
+    }
+}
@@ -0,0 +1,13 @@
+package com.densoft.springboottesting.fixtures;
+
+/**
+ * Employee data shared by the controller and integration tests of the servlet application and of the reactive
+ * variant in {@code reactive/}, so both stacks are checked with the same requests. Each test maps a fixture onto
+ * its own {@code Employee} type.
+ */
+public record EmployeeFixture(String firstName, String lastName, String email) {
+
+    public static final EmployeeFixture DENNIS = new EmployeeFixture("dennis", "githinji", "wakahiad@gmail.com");
+    public static final EmployeeFixture JANE = new EmployeeFixture("jane", "doe", "jane@gmail.com");
+    public static final EmployeeFixture DENNO = new EmployeeFixture("denno", "gg", "denno@gmail.com");
+}